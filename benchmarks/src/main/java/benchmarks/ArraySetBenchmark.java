@@ -0,0 +1,71 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import utilities.ArraySet;
+import utilities.DictionaryRegistry;
+import utilities.WordList;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Bennett Brixen
+ * Benchmarks for ArraySet filled with every word of the 5, 6 and 7 letter dictionaries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArraySetBenchmark {
+
+    @Param({"5", "6", "7"})
+    public int letters;
+
+    private String[] words;
+    private ArraySet<String> set;
+    private String present, missing;
+
+    @Setup
+    public void setup() throws IOException {
+        WordList dictionary = DictionaryRegistry.get(letters).getWords();
+        words = new String[dictionary.size()];
+        for (int i = 0; i < words.length; i++) words[i] = dictionary.getWord(i);
+        set = fill();
+        present = words[words.length / 2];
+        missing = "QQQQQQQQQQQQ".substring(0, letters);
+    }
+
+    private ArraySet<String> fill() {
+        ArraySet<String> filled = new ArraySet<>();
+        for (String word : words) filled.add(word);
+        return filled;
+    }
+
+    @Benchmark
+    public ArraySet<String> addAll() {
+        return fill();
+    }
+
+    @Benchmark
+    public boolean containsPresent() {
+        return set.contains(present);
+    }
+
+    @Benchmark
+    public boolean containsMissing() {
+        return set.contains(missing);
+    }
+
+    @Benchmark
+    public boolean removeAndAdd() {
+        // adding it back keeps the set the same size for the next call
+        return set.remove(present) & set.add(present);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (String word : set) blackhole.consume(word);
+    }
+}
@@ -0,0 +1,78 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import utilities.ArraySet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Bennett Brixen
+ * Benchmarks for ArraySet from a thousand up to a million elements, with HashSet as a baseline.
+ * Every operation should stay flat as the set grows, except the bulk loads which should grow linearly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ArraySetScalingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private List<Integer> values; // every value twice, so the bulk load has duplicates to drop
+    private Integer[] probes;
+    private ArraySet<Integer> set;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Integer[] filled = new Integer[2 * size];
+        for (int i = 0; i < filled.length; i++) filled[i] = i % size;
+        values = Arrays.asList(filled);
+        set = new ArraySet<>(values);
+
+        // half of the probes are in the set and half are not
+        SplittableRandom random = new SplittableRandom(42);
+        probes = new Integer[1024];
+        for (int i = 0; i < probes.length; i++) probes[i] = random.nextInt(2 * size);
+    }
+
+    private Integer probe() {
+        next = (next + 1) & (probes.length - 1);
+        return probes[next];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ArraySet<Integer> bulkLoad() {
+        return new ArraySet<>(values);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public HashSet<Integer> bulkLoadHashSet() {
+        return new HashSet<>(values);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return set.contains(probe());
+    }
+
+    @Benchmark
+    public boolean removeAndAdd() {
+        // only adding it back if it was there keeps the set the same size for the next call
+        Integer value = probe();
+        return set.remove(value) && set.add(value);
+    }
+
+    @Benchmark
+    public Integer get() {
+        return set.get(probe() % size);
+    }
+}
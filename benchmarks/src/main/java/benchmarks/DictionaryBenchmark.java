@@ -0,0 +1,43 @@
+package benchmarks;
+
+import controller.WordleController;
+import org.openjdk.jmh.annotations.*;
+import utilities.DictionaryRegistry;
+import utilities.WordDictionary;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Bennett Brixen
+ * Benchmarks for starting a game: reading a dictionary file from scratch, and creating a controller
+ * (which picks the answer out of the already loaded, shared dictionary).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DictionaryBenchmark {
+
+    @Param({"5", "6", "7"})
+    public int letters;
+
+    private String filename;
+
+    @Setup
+    public void setup() throws IOException {
+        filename = DictionaryRegistry.filename(letters);
+        DictionaryRegistry.get(filename, letters); // the controller benchmark measures a warm registry
+    }
+
+    @Benchmark
+    public WordDictionary loadDictionary() throws IOException {
+        return WordDictionary.load(filename, letters);
+    }
+
+    @Benchmark
+    public WordleController newController() {
+        return new WordleController(letters, 6, filename);
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import controller.WordleController;
+import model.WordleModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import utilities.DictionaryRegistry;
+import utilities.IncorrectGuessException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Bennett Brixen
+ * Benchmarks for making a guess: validating it in the controller (valid, wrong length, not alphabetic
+ * and not in the dictionary) and scoring it in the model.
+ * Scoring needs a fresh game every call, which is set up in its own Game state so the validation benchmarks
+ * do not pay for it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GuessBenchmark {
+
+    @Param({"5", "6", "7"})
+    public int letters;
+
+    private WordleController controller;
+    private DictionaryRegistry.Entry dictionary;
+    private String validGuess, wrongLength, notAlphabetic, notAWord;
+
+    @Setup
+    public void setup() throws IOException {
+        dictionary = DictionaryRegistry.get(letters);
+        controller = new WordleController(letters, 6, DictionaryRegistry.filename(letters));
+        validGuess = dictionary.getWords().getWord(dictionary.getWords().size() / 2).toLowerCase();
+        wrongLength = validGuess + "s";
+        notAlphabetic = validGuess.substring(1) + "1";
+        notAWord = "qqqqqqqqqqqq".substring(0, letters);
+    }
+
+    @Benchmark
+    public void validGuess() throws IncorrectGuessException {
+        controller.validGuess(validGuess);
+    }
+
+    @Benchmark
+    public void validGuessWrongLength(Blackhole blackhole) {
+        rejected(wrongLength, blackhole);
+    }
+
+    @Benchmark
+    public void validGuessNotAlphabetic(Blackhole blackhole) {
+        rejected(notAlphabetic, blackhole);
+    }
+
+    @Benchmark
+    public void validGuessNotAWord(Blackhole blackhole) {
+        rejected(notAWord, blackhole);
+    }
+
+    @Benchmark
+    public WordleModel handleGuess(Game game) {
+        game.model.handleGuess(validGuess.toUpperCase());
+        return game.model;
+    }
+
+    private void rejected(String guess, Blackhole blackhole) {
+        try {
+            controller.validGuess(guess);
+        } catch (IncorrectGuessException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    /**
+     * This holds the game handleGuess plays into. handleGuess fills a row of the model, so every call gets a
+     * fresh one. A guess takes microseconds, long enough that timing each call on its own is still accurate
+     */
+    @State(Scope.Thread)
+    public static class Game {
+
+        private WordleModel model;
+
+        @Setup(Level.Invocation)
+        public void newModel(GuessBenchmark benchmark) {
+            model = new WordleModel(benchmark.dictionary.randomWord(), 6, benchmark.dictionary.getIndex());
+        }
+    }
+}
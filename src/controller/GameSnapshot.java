@@ -0,0 +1,109 @@
+package controller;
+
+import utilities.Guess;
+import utilities.INDEX_RESULT;
+
+/**
+ * @author Bennett Brixen
+ * This class represents the state of a game session at one moment. It is immutable, so it can be handed to
+ * any thread while the session keeps being played.
+ *
+ * The answer is only included once the game is over, so a snapshot can be sent straight to a player.
+ */
+public final class GameSnapshot {
+
+	private final long sessionId;
+	private final Guess[] progress;
+	private final INDEX_RESULT[] guessedCharacters;
+	private final int guessCount;
+	private final int remainingCount;
+	private final boolean gameOver;
+	private final boolean won;
+	private final String answer;
+
+	/**
+	 * This takes a snapshot of a game. It must be called while nothing else is playing the game.
+	 *
+	 * @param sessionId the id of the session the game belongs to
+	 * @param controller the game
+	 */
+	GameSnapshot(long sessionId, WordleController controller) {
+		this.sessionId = sessionId;
+		this.progress = copy(controller.getProgress());
+		this.guessedCharacters = controller.getGuessedCharacters().clone();
+		this.guessCount = controller.getGuessCount();
+		this.remainingCount = controller.getRemainingCount();
+		this.gameOver = controller.isGameOver();
+		this.won = guessCount > 0 && progress[guessCount - 1].getIsCorrect();
+		this.answer = gameOver ? controller.getAnswer() : null;
+	}
+
+	/**
+	 * @return the id of the session
+	 */
+	public long getSessionId() {
+		return sessionId;
+	}
+
+	/**
+	 * @return every row of the game, rows that have not been guessed yet are blank
+	 */
+	public Guess[] getProgress() {
+		return copy(progress);
+	}
+
+	/**
+	 * This copies every guess along with its results, since Guess hands out its results array itself
+	 *
+	 * @param progress the guesses to copy
+	 * @return copies that share nothing that can be changed with the originals
+	 */
+	private static Guess[] copy(Guess[] progress) {
+		Guess[] copies = new Guess[progress.length];
+		for (int i = 0; i < progress.length; i++)
+			copies[i] = new Guess(progress[i].getGuess(), progress[i].getIndices().clone(), progress[i].getIsCorrect());
+		return copies;
+	}
+
+	/**
+	 * @return the status of every character, in alphabetical order
+	 */
+	public INDEX_RESULT[] getGuessedCharacters() {
+		return guessedCharacters.clone();
+	}
+
+	/**
+	 * @return the number of guesses made
+	 */
+	public int getGuessCount() {
+		return guessCount;
+	}
+
+	/**
+	 * @return the number of dictionary words that could still be the answer
+	 */
+	public int getRemainingCount() {
+		return remainingCount;
+	}
+
+	/**
+	 * @return true if the game is finished
+	 */
+	public boolean isGameOver() {
+		return gameOver;
+	}
+
+	/**
+	 * @return true if the answer was guessed
+	 */
+	public boolean isWon() {
+		return won;
+	}
+
+	/**
+	 * @return the answer, or null if the game is not over yet
+	 */
+	public String getAnswer() {
+		return answer;
+	}
+}
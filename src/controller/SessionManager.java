@@ -0,0 +1,279 @@
+package controller;
+
+import utilities.DictionaryRegistry;
+import utilities.EngineMetrics;
+import utilities.IncorrectGuessException;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author Bennett Brixen
+ * This class hosts many games at once, one per player session, each looked up by its id.
+ *
+ * Sessions live in a ConcurrentHashMap and every session has its own lock, so players never wait on each other,
+ * only on their own earlier guesses. Guesses and reads run on virtual threads when the JVM has them (Java 21+),
+ * otherwise on a pool of daemon threads, and complete with an immutable GameSnapshot.
+ * The counters are LongAdders so that busy sessions on different cores do not fight over them.
+ *
+ * Sessions that have not been touched for the idle timeout are evicted by a background sweep,
+ * so players who leave do not keep their games in memory.
+ *
+ * Every game is counted in EngineMetrics.INSTANCE. Registering it with JMX is left to the program running the
+ * server (see EngineMetrics.register), since only it knows whether it wants an MBean server.
+ */
+public class SessionManager implements AutoCloseable {
+
+	private final int letters;
+	private final int maxRows;
+	private final String filename;
+	private final long idleTimeoutNanos;
+
+	private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+	private final AtomicLong nextId = new AtomicLong();
+	private final ExecutorService workers = newWorkerExecutor();
+	private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(daemonThreads("wordle-session-sweeper-"));
+
+	private final LongAdder created = new LongAdder();
+	private final LongAdder guesses = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder evicted = new LongAdder();
+
+	/**
+	 * This creates a session manager. The dictionary is loaded now, so creating a session never has to read it.
+	 *
+	 * @param letters the number of letters in a guess
+	 * @param maxRows the number of guesses allowed in each game
+	 * @param filename the file for the dictionary of all valid words
+	 * @param idleTimeout how long a session can go untouched before it is evicted
+	 * @param unit the unit of the idle timeout
+	 * @throws IOException if the dictionary could not be read
+	 */
+	public SessionManager(int letters, int maxRows, String filename, long idleTimeout, TimeUnit unit) throws IOException {
+		this.letters = letters;
+		this.maxRows = maxRows;
+		this.filename = filename;
+		this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+		DictionaryRegistry.get(filename, letters);
+
+		long sweepNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(10), idleTimeoutNanos / 2);
+		sweeper.scheduleWithFixedDelay(this::evictIdle, sweepNanos, sweepNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * This starts a new game with a random answer
+	 *
+	 * @return the id of the new session
+	 */
+	public long createSession() {
+		long id = nextId.incrementAndGet();
+		sessions.put(id, new Session(new WordleController(letters, maxRows, filename, null, null, EngineMetrics.INSTANCE)));
+		created.increment();
+		return id;
+	}
+
+	/**
+	 * This makes a guess in a session. Guesses to the same session are made one at a time, in the order they run.
+	 *
+	 * @param id the id of the session
+	 * @param guess the word being guessed
+	 * @return the game after the guess, or a failed future with an IncorrectGuessException if the guess was invalid
+	 * 			or a NoSuchElementException if there is no such session
+	 */
+	public CompletableFuture<GameSnapshot> submitGuess(long id, String guess) {
+		return CompletableFuture.supplyAsync(() -> {
+			Session session = find(id);
+			session.lock.lock();
+			try {
+				checkLive(id, session);
+				session.touch();
+				session.controller.makeGuess(guess);
+				guesses.increment();
+				return new GameSnapshot(id, session.controller);
+
+			} catch (IncorrectGuessException e) {
+				rejected.increment();
+				throw new CompletionException(e);
+			} finally {
+				session.lock.unlock();
+			}
+		}, workers);
+	}
+
+	/**
+	 * This reads the current state of a session
+	 *
+	 * @param id the id of the session
+	 * @return the game, or a failed future with a NoSuchElementException if there is no such session
+	 */
+	public CompletableFuture<GameSnapshot> getState(long id) {
+		return CompletableFuture.supplyAsync(() -> {
+			Session session = find(id);
+			session.lock.lock();
+			try {
+				checkLive(id, session);
+				session.touch();
+				return new GameSnapshot(id, session.controller);
+			} finally {
+				session.lock.unlock();
+			}
+		}, workers);
+	}
+
+	/**
+	 * This ends a session straight away, instead of waiting for it to go idle.
+	 * It is removed under the session's lock, so a guess already being made finishes first and any guess after
+	 * this is rejected, rather than being applied to a game that has ended.
+	 *
+	 * @param id the id of the session
+	 * @return true if the session existed
+	 */
+	public boolean endSession(long id) {
+		Session session = sessions.get(id);
+		if (session == null) return false;
+		session.lock.lock();
+		try {
+			return sessions.remove(id, session);
+		} finally {
+			session.lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of sessions in memory
+	 */
+	public int getActiveSessions() {
+		return sessions.size();
+	}
+
+	/**
+	 * @return the number of sessions ever created
+	 */
+	public long getCreatedSessions() {
+		return created.sum();
+	}
+
+	/**
+	 * @return the number of valid guesses made across every session
+	 */
+	public long getGuesses() {
+		return guesses.sum();
+	}
+
+	/**
+	 * @return the number of guesses that were rejected as invalid
+	 */
+	public long getRejectedGuesses() {
+		return rejected.sum();
+	}
+
+	/**
+	 * @return the number of sessions evicted for being idle
+	 */
+	public long getEvictedSessions() {
+		return evicted.sum();
+	}
+
+	/**
+	 * This stops the background threads. Sessions can no longer be played once this is closed.
+	 */
+	@Override
+	public void close() {
+		sweeper.shutdownNow();
+		workers.shutdown();
+		sessions.clear();
+	}
+
+	/**
+	 * This finds a session, or throws if it was ended or evicted
+	 */
+	private Session find(long id) {
+		Session session = sessions.get(id);
+		if (session == null) throw new NoSuchElementException("No session with id " + id);
+		return session;
+	}
+
+	/**
+	 * This checks that a session was not evicted or ended between finding it and locking it.
+	 * Eviction and endSession both remove it under the session's lock, so once it is locked the answer cannot change.
+	 */
+	private void checkLive(long id, Session session) {
+		if (sessions.get(id) != session) throw new NoSuchElementException("No session with id " + id);
+	}
+
+	/**
+	 * This removes every session that has gone untouched for the idle timeout.
+	 * A session that is in the middle of a guess is busy, not idle, so it is skipped.
+	 */
+	private void evictIdle() {
+		long now = System.nanoTime();
+		sessions.forEach((id, session) -> {
+			if (now - session.lastAccess < idleTimeoutNanos || !session.lock.tryLock()) return;
+			try {
+				if (now - session.lastAccess >= idleTimeoutNanos && sessions.remove(id, session)) evicted.increment();
+			} finally {
+				session.lock.unlock();
+			}
+		});
+	}
+
+	/**
+	 * This creates the executor for session work, using a virtual thread per task if this JVM has them.
+	 * It is looked up reflectively since the project still compiles for Java 17.
+	 */
+	private static ExecutorService newWorkerExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+					daemonThreads("wordle-session-"));
+		}
+	}
+
+	/**
+	 * This creates daemon threads, so an open manager never keeps the program running
+	 */
+	private static ThreadFactory daemonThreads(String prefix) {
+		AtomicInteger count = new AtomicInteger();
+		return task -> {
+			Thread thread = new Thread(task, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * This class represents one player's game, along with the lock that keeps their guesses in order
+	 */
+	private static class Session {
+
+		private final WordleController controller;
+		private final ReentrantLock lock = new ReentrantLock(); // not synchronized, which would pin a virtual thread
+		private volatile long lastAccess = System.nanoTime();
+
+		/**
+		 * @param controller the game
+		 */
+		private Session(WordleController controller) {
+			this.controller = controller;
+		}
+
+		/**
+		 * Marks the session as used just now
+		 */
+		private void touch() {
+			lastAccess = System.nanoTime();
+		}
+	}
+}
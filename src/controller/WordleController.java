@@ -1,13 +1,22 @@
 package controller;
 
+import model.EntropySolver;
+import model.GameEvent;
+import model.GameStatistics;
 import model.WordleModel;
-import utilities.ArraySet;
+import utilities.DictionaryRegistry;
+import utilities.EngineMetrics;
+import utilities.FlightEvents;
+import utilities.GameJournal;
 import utilities.Guess;
+import utilities.HardModeConstraints;
 import utilities.INDEX_RESULT;
 import utilities.IncorrectGuessException;
-import java.io.File;
-import java.io.FileNotFoundException;
+import utilities.WordDictionary;
+import utilities.WordList;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.SubmissionPublisher;
 
 /**
  * @author Bennett Brixen
@@ -15,15 +24,21 @@ import java.util.*;
  * variables which dictate how the game runs.
  * This can handle a guess by validating it and then calling the model.
  *
- * This class is both an observer and observable. it serves as a middle ground between the view and model.
- * it observes the model, and upon update, it will notify its observers (which are the views) that there was an update,
- * passing the new model information along
+ * The views find out about guesses through GameEvents. The controller hands the model the publisher the views
+ * are subscribed to, and the model publishes straight to it, so events do not pass back through here.
  */
-public class WordleController extends Observable implements Observer {
+public class WordleController {
 
 	private final WordleModel model;
 	private final int letters;
-	private ArraySet<String> allwords;
+	private final EngineMetrics metrics; // null if this game is not counted
+	private DictionaryRegistry.Entry dictionary;
+	private WordList allwords;
+	private EntropySolver solver;
+	private final HardModeConstraints constraints; // always kept up to date, so hard mode can be turned on mid game
+	private boolean hardMode;
+	private GameJournal journal; // where this game is written when it ends, or null
+	private GameStatistics statistics; // what this game is added to when it ends, or null
 
 	/**
 	 * This creates a controller for a game of wordle
@@ -35,10 +50,104 @@ public class WordleController extends Observable implements Observer {
 	 * @param filename the file for the dictionary of all valid words
 	 */
 	public WordleController (int letters, int maxRows, String filename) {
+		this(letters, maxRows, filename, null);
+	}
+
+	/**
+	 * This creates a controller for a game of wordle that publishes what happens in the game
+	 *
+	 * @param letters the number of letters in a guess
+	 * @param maxRows the number of guesses allowed, or rows in the game
+	 * @param filename the file for the dictionary of all valid words
+	 * @param events where the game publishes GameEvents (it can be shared by many games), or null for no events
+	 */
+	public WordleController (int letters, int maxRows, String filename, SubmissionPublisher<GameEvent> events) {
+		this(letters, maxRows, filename, null, events);
+	}
+
+	/**
+	 * This creates a controller for a game of wordle with a chosen answer, for replaying recorded games
+	 *
+	 * @param letters the number of letters in a guess
+	 * @param maxRows the number of guesses allowed, or rows in the game
+	 * @param filename the file for the dictionary of all valid words
+	 * @param answer the answer, or null to pick a random word from the dictionary. It has to be a word in the
+	 *               dictionary, just like a guess
+	 * @param events where the game publishes GameEvents (it can be shared by many games), or null for no events
+	 * @throws IllegalArgumentException if the answer is the wrong length, not all letters, or not in the dictionary
+	 */
+	public WordleController (int letters, int maxRows, String filename, String answer,
+							 SubmissionPublisher<GameEvent> events) {
+		this(letters, maxRows, filename, answer, events, null);
+	}
+
+	/**
+	 * This creates a controller for a game of wordle that is counted in the engine metrics.
+	 * Only games people play should be, so the numbers are not swamped by simulations and scripts
+	 *
+	 * @param letters the number of letters in a guess
+	 * @param maxRows the number of guesses allowed, or rows in the game
+	 * @param filename the file for the dictionary of all valid words
+	 * @param answer the answer, or null to pick a random word from the dictionary. It has to be a word in the
+	 *               dictionary, just like a guess
+	 * @param events where the game publishes GameEvents (it can be shared by many games), or null for no events
+	 * @param metrics where to count the game, usually EngineMetrics.INSTANCE, or null to not count it
+	 * @throws IllegalArgumentException if the answer is the wrong length, not all letters, or not in the dictionary
+	 */
+	public WordleController (int letters, int maxRows, String filename, String answer,
+							 SubmissionPublisher<GameEvent> events, EngineMetrics metrics) {
 		// maxRows and letters is for the number of guesses and the letters in each guess
-		this.model = new WordleModel(Objects.requireNonNull(selectWord(filename)), maxRows);
-		this.model.addObserver(this);
 		this.letters = letters;
+		this.metrics = metrics;
+		String randomWord = Objects.requireNonNull(selectWord(filename));
+		if (answer == null) answer = randomWord;
+		else {
+			long packed = WordDictionary.encode(answer, letters);
+			if (packed == WordDictionary.WRONG_LENGTH)
+				throw new IllegalArgumentException("Answer must be " + letters + " letters long");
+			if (packed == WordDictionary.NOT_ALPHABETIC)
+				throw new IllegalArgumentException("Answer must only contain letters");
+			if (!allwords.contains(packed))
+				throw new IllegalArgumentException("Answer must be a valid word in dictionary");
+		}
+		this.model = new WordleModel(answer, maxRows, dictionary.getIndex(), events, metrics);
+		this.constraints = new HardModeConstraints(letters);
+	}
+
+	/**
+	 * This turns hard mode on or off. In hard mode every guess has to use the hints revealed so far
+	 *
+	 * @param hardMode true to turn on hard mode
+	 */
+	public void setHardMode(boolean hardMode) {
+		this.hardMode = hardMode;
+	}
+
+	/**
+	 * @return true if this game is in hard mode
+	 */
+	public boolean isHardMode() {
+		return hardMode;
+	}
+
+	/**
+	 * This sets the journal this game is added to when it ends. Games without one are not written anywhere,
+	 * which is what simulations and scripted games want
+	 *
+	 * @param journal the journal, or null to not write this game
+	 */
+	public void setJournal(GameJournal journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * This sets the statistics this game is added to when it ends. Only games a person plays should have them,
+	 * so bots and scripted games never change anyone's streak
+	 *
+	 * @param statistics the statistics, or null to not count this game
+	 */
+	public void setStatistics(GameStatistics statistics) {
+		this.statistics = statistics;
 	}
 
 	/**
@@ -59,14 +168,45 @@ public class WordleController extends Observable implements Observer {
 	 * and update our current progress with the data model returns.
 	 *
 	 * @param guess the string being guessed
-	 * @throws IncorrectGuessException if the guess was invalid (too long, not a word, or not in the dictionary)
+	 * @throws IncorrectGuessException if the game is already over, or the guess was invalid (too long, not a word,
+	 * or not in the dictionary)
 	 */
 	public void makeGuess(String guess) throws IncorrectGuessException {
-		guess = guess.toUpperCase(); // the answer is stored as uppercase, so this is too
+		FlightEvents.MakeGuess event = FlightEvents.isRecording() ? new FlightEvents.MakeGuess() : null;
+		if (event != null) event.begin();
+		try {
+			// a guess after the last one would be past the end of the board
+			if (model.isGameOver()) throw new IncorrectGuessException("The game is already over\n");
+			// validating and handling
+			validGuess(guess);
+		} catch (IncorrectGuessException e) {
+			if (event != null && event.shouldCommit()) commit(event, guess, false, e.getMessage().trim());
+			throw e;
+		}
+		model.handleGuess(guess.toUpperCase()); // the answer is stored as uppercase, so this is too
+		Guess latest = model.getProgress()[model.getGuessCount() - 1];
+		constraints.update(latest);
+		if (model.isGameOver()) {
+			if (statistics != null) statistics.record(model.getAnswer(), latest.getIsCorrect(), model.getGuessCount());
+			if (journal != null) model.appendTo(journal);
+		}
+		if (event != null && event.shouldCommit()) commit(event, guess, true, "Accepted");
+	}
 
-		// validating and handling
-		validGuess(guess);
-		model.handleGuess(guess);
+	/**
+	 * This fills in and commits the Flight Recorder event for a guess, only called when a recording wants it
+	 *
+	 * @param event the event, begun when the guess was made
+	 * @param guess the guess
+	 * @param accepted true if the guess was valid
+	 * @param outcome Accepted, or why the guess was rejected
+	 */
+	private void commit(FlightEvents.MakeGuess event, String guess, boolean accepted, String outcome) {
+		event.gameId = model.getGameId();
+		event.guess = guess;
+		event.accepted = accepted;
+		event.outcome = outcome;
+		event.commit();
 	}
 
 	/**
@@ -78,6 +218,24 @@ public class WordleController extends Observable implements Observer {
 		return model.getAnswer();
 	}
 
+	/**
+	 * Gets the id of this game, which is in every GameEvent it publishes
+	 *
+	 * @return the id of this game
+	 */
+	public long getGameId() {
+		return model.getGameId();
+	}
+
+	/**
+	 * Gets the number of guesses made so far
+	 *
+	 * @return the number of guesses made
+	 */
+	public int getGuessCount() {
+		return model.getGuessCount();
+	}
+
 	/**
 	 * Gets the progress of the game so far. This is used to display
 	 *
@@ -99,26 +257,72 @@ public class WordleController extends Observable implements Observer {
 		return model.getGuessedCharacters();
 	}
 
+	/**
+	 * This recommends the best next guesses, ranked by how much they are expected to narrow down the answer.
+	 * This can take a while on the first guess with longer words, so views should call it off their main thread.
+	 *
+	 * @param k the number of guesses to recommend
+	 * @return up to k recommended guesses, best first
+	 */
+	public List<EntropySolver.Recommendation> getHints(int k) {
+		synchronized (this) {
+			if (solver == null) solver = new EntropySolver(allwords, dictionary.getPatternMatrix());
+		}
+		return solver.recommend(model.getRemainingWords(), k);
+	}
+
+	/**
+	 * Gets the number of dictionary words that could still be the answer after every guess so far
+	 *
+	 * @return the number of remaining words
+	 */
+	public int getRemainingCount() {
+		return model.getRemainingCount();
+	}
+
+	/**
+	 * This scores a batch of guesses against this game's answer without making them, so the game does not change.
+	 * Unlike makeGuess, the guesses do not have to be in the dictionary.
+	 *
+	 * @param guesses the words to score, each must be [letters] letters long
+	 * @param patterns filled with the pattern of each guess (see PatternScorer)
+	 */
+	public void scoreGuesses(String[] guesses, int[] patterns) {
+		WordleModel.score(guesses, model.getAnswer(), patterns);
+	}
+
+	/**
+	 * This scores every guess against every answer, without touching this game
+	 *
+	 * @param guesses the words being guessed, each must be [letters] letters long
+	 * @param answers the answers to score them against, each must be [letters] letters long
+	 * @param patterns filled with the patterns, guess g against answer a is at [g * answers.length + a]
+	 */
+	public void scoreBatch(String[] guesses, String[] answers, int[] patterns) {
+		if (answers.length > 0 && answers[0].length() != letters)
+			throw new IllegalArgumentException("Answers must be " + letters + " characters long");
+		WordleModel.score(guesses, answers, patterns);
+	}
+
 	/**
 	 * This chooses a random word from the dictionary file
+	 * The dictionary is shared with every other game, so the file is only read the first time it is used
 	 *
 	 * @param filename the dictionary filename
-	 * @return a random word for the game, or null if the file did not exist
+	 * @return a random word for the game, or null if the file could not be read
 	 */
 	private String selectWord(String filename) {
-		allwords = new ArraySet<>();
 		try {
-			// read every word into allwords
-			Scanner scanner = new Scanner(new File(filename));
-			while (scanner.hasNextLine())
-				allwords.add(scanner.nextLine().toUpperCase());
+			// every game with this file shares the same words
+			long start = metrics != null ? System.nanoTime() : 0;
+			dictionary = DictionaryRegistry.get(filename, letters);
+			if (metrics != null) metrics.dictionaryLoaded(System.nanoTime() - start);
+			allwords = dictionary.getWords();
 
 			// get a random word
-			Random random = new Random();
-			int randomIndex = random.nextInt(allwords.size());
-			return allwords.get(randomIndex).toUpperCase();
+			return dictionary.randomWord();
 
-		} catch (FileNotFoundException e) {
+		} catch (IOException e) {
 			return null; // it didnt exist, so return null (this is handled elsewhere)
 		}
 	}
@@ -129,30 +333,43 @@ public class WordleController extends Observable implements Observer {
 	 * It must be [letters] long
 	 * Each character must be alphabetic
 	 * The string must be a valid word in the dictionary
+	 * All three are checked in a single pass while the guess is packed for the dictionary lookup
+	 * In hard mode, it must also use every hint revealed so far
 	 *
 	 * @param guess the string we are checking
 	 * @throws IncorrectGuessException if the guess breaks any requirements
 	 */
-	private void validGuess(String guess) throws IncorrectGuessException {
+	public void validGuess(String guess) throws IncorrectGuessException {
+		long start = metrics != null ? System.nanoTime() : 0; // only timed when it is counted
+		long packed = WordDictionary.encode(guess, letters);
 		// this validates the correct length
-		if (guess.length() != letters)
-			throw new IncorrectGuessException("Guess must be " + letters + " characters long\n");
-		if (!guess.matches("[a-zA-Z]+"))
-			throw new IncorrectGuessException("Guesses must only contain letters\n");
-		if (!allwords.contains(guess))
-			throw new IncorrectGuessException("Guess must be a valid word in dictionary\n");
+		if (packed == WordDictionary.WRONG_LENGTH)
+			throw rejected(EngineMetrics.Rejection.WRONG_LENGTH, start, "Guess must be " + letters + " characters long\n");
+		if (packed == WordDictionary.NOT_ALPHABETIC)
+			throw rejected(EngineMetrics.Rejection.NOT_ALPHABETIC, start, "Guesses must only contain letters\n");
+		if (!allwords.contains(packed))
+			throw rejected(EngineMetrics.Rejection.NOT_IN_DICTIONARY, start, "Guess must be a valid word in dictionary\n");
+		if (hardMode) {
+			try {
+				constraints.check(packed);
+			} catch (IncorrectGuessException e) {
+				if (metrics != null) metrics.guessRejected(EngineMetrics.Rejection.HARD_MODE, System.nanoTime() - start);
+				throw e;
+			}
+		}
+		if (metrics != null) metrics.guessAccepted(System.nanoTime() - start);
 	}
 
 	/**
-	 * This update will come from the observer
+	 * This counts a rejected guess in the engine metrics, if this game has them, and makes the exception for it
 	 *
-	 * @param o - the model
-	 * @param arg - this is the last guess that was generated by the model
+	 * @param reason why the guess was rejected
+	 * @param start when validating the guess started, from System.nanoTime
+	 * @param message the message for the user
+	 * @return the exception to throw
 	 */
-	@Override
-	public void update(Observable o, Object arg) {
-		// this just passes the update to the view
-		setChanged();
-		notifyObservers(arg);
+	private IncorrectGuessException rejected(EngineMetrics.Rejection reason, long start, String message) {
+		if (metrics != null) metrics.guessRejected(reason, System.nanoTime() - start);
+		return new IncorrectGuessException(message);
 	}
 }
@@ -0,0 +1,244 @@
+package model;
+
+import utilities.Guess;
+import utilities.INDEX_RESULT;
+import utilities.PatternMatrix;
+import utilities.PatternScorer;
+import utilities.WordDictionary;
+import utilities.WordList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @author Bennett Brixen
+ * This class recommends the next guess in a game of wordle.
+ *
+ * First it narrows the dictionary down to the candidates, which are the words that would have given the exact
+ * same patterns as every guess made so far. Then every dictionary word is tried as the next guess: it splits
+ * the candidates into groups by pattern, and the more evenly it splits them the more we expect to learn
+ * from it. This is measured as the entropy (in bits) of the pattern distribution.
+ *
+ * Trying every guess against every candidate is the slow part, so the guesses are split up on a fork join pool.
+ * Each piece only writes to its own slice of the results, so nothing is shared between threads.
+ * If a PatternMatrix is given, patterns are read from it instead of being scored. The games pass in the one from
+ * DictionaryRegistry, so once PatternMatrixBuilder has been run for a dictionary every hint uses it.
+ */
+public class EntropySolver {
+
+	private static final int SPLIT_THRESHOLD = 256; // guesses per fork join task
+
+	private final WordList dictionary;
+	private final PatternMatrix matrix;
+	private final int letters;
+
+	/**
+	 * This creates a solver which scores patterns as it goes
+	 *
+	 * @param dictionary - every word that can be guessed or be the answer
+	 */
+	public EntropySolver(WordList dictionary) {
+		this(dictionary, null);
+	}
+
+	/**
+	 * This creates a solver which reads patterns from a precomputed matrix
+	 *
+	 * @param dictionary - every word that can be guessed or be the answer
+	 * @param matrix - the pattern matrix for this dictionary, or null to score patterns directly
+	 */
+	public EntropySolver(WordList dictionary, PatternMatrix matrix) {
+		if (matrix != null && matrix.size() != dictionary.size())
+			throw new IllegalArgumentException("The pattern matrix does not match the dictionary");
+		this.dictionary = dictionary;
+		this.matrix = matrix;
+		this.letters = dictionary.getLetters();
+	}
+
+	/**
+	 * This recommends the best next guesses for a game
+	 *
+	 * @param progress - the progress of the game, from WordleModel.getProgress()
+	 * @param k - the number of guesses to recommend
+	 * @return up to k guesses, best first
+	 */
+	public List<Recommendation> recommend(Guess[] progress, int k) {
+		return recommend(candidates(progress), k);
+	}
+
+	/**
+	 * This recommends the best guesses for narrowing down a list of candidate answers
+	 *
+	 * @param candidates - the dictionary indices of every answer that is still possible
+	 * @param k - the number of guesses to recommend
+	 * @return up to k guesses, best first
+	 */
+	public List<Recommendation> recommend(int[] candidates, int k) {
+		if (candidates.length == 0 || k <= 0) return new ArrayList<>();
+
+		boolean[] isCandidate = new boolean[dictionary.size()];
+		for (int candidate : candidates) isCandidate[candidate] = true;
+
+		double[] entropies = new double[dictionary.size()];
+		ForkJoinPool.commonPool().invoke(new EntropyTask(candidates, entropies, 0, entropies.length));
+
+		// keeping the k best, ties go to words that could still be the answer
+		Comparator<Integer> worstFirst = Comparator.<Integer>comparingDouble(i -> entropies[i])
+				.thenComparing(i -> isCandidate[i]);
+		PriorityQueue<Integer> best = new PriorityQueue<>(worstFirst);
+		for (int i = 0; i < entropies.length; i++) {
+			best.add(i);
+			if (best.size() > k) best.poll();
+		}
+
+		List<Recommendation> recommendations = new ArrayList<>();
+		while (!best.isEmpty()) {
+			int i = best.poll();
+			recommendations.add(0, new Recommendation(dictionary.getWord(i), entropies[i], isCandidate[i]));
+		}
+		return recommendations;
+	}
+
+	/**
+	 * This finds every dictionary word that is consistent with the guesses made so far
+	 *
+	 * @param progress - the progress of the game, unguessed rows are skipped
+	 * @return the dictionary indices of every possible answer
+	 */
+	public int[] candidates(Guess[] progress) {
+		List<long[]> made = new ArrayList<>(); // {packed guess, pattern}
+		for (Guess guess : progress) {
+			if (guess.getIndices().length == 0 || guess.getIndices()[0] == INDEX_RESULT.UNGUESSED) continue;
+			made.add(new long[] {WordDictionary.encode(guess.getGuess(), letters),
+					PatternScorer.fromResults(guess.getIndices())});
+		}
+
+		int[] candidates = new int[dictionary.size()];
+		int count = 0;
+		for (int answer = 0; answer < dictionary.size(); answer++) {
+			boolean consistent = true;
+			for (long[] guess : made) {
+				if (PatternScorer.score(guess[0], dictionary.get(answer), letters) != guess[1]) {
+					consistent = false;
+					break;
+				}
+			}
+			if (consistent) candidates[count++] = answer;
+		}
+
+		int[] trimmed = new int[count];
+		System.arraycopy(candidates, 0, trimmed, 0, count);
+		return trimmed;
+	}
+
+	/**
+	 * This works out the entropy of a range of guesses, splitting the range in half until it is small enough
+	 */
+	@SuppressWarnings("serial") // fork join tasks are never serialized
+	private class EntropyTask extends RecursiveAction {
+
+		private final int[] candidates;
+		private final double[] entropies;
+		private final int from, to;
+
+		/**
+		 * @param candidates - the possible answers
+		 * @param entropies - where the entropy of each guess is written
+		 * @param from - the first guess in this task
+		 * @param to - one past the last guess in this task
+		 */
+		EntropyTask(int[] candidates, double[] entropies, int from, int to) {
+			this.candidates = candidates;
+			this.entropies = entropies;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Either splits this task in two or scores its guesses directly
+		 */
+		@Override
+		protected void compute() {
+			if (to - from > SPLIT_THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new EntropyTask(candidates, entropies, from, middle),
+						new EntropyTask(candidates, entropies, middle, to));
+				return;
+			}
+
+			int[] counts = new int[PatternScorer.patternCount(letters)]; // reused for every guess in this task
+			double total = candidates.length;
+			for (int guess = from; guess < to; guess++) {
+				long packedGuess = dictionary.get(guess);
+				for (int answer : candidates) {
+					int pattern = matrix != null ? matrix.pattern(guess, answer)
+							: PatternScorer.score(packedGuess, dictionary.get(answer), letters);
+					counts[pattern]++;
+				}
+
+				// entropy = log2(total) - sum(count * log2(count)) / total, clearing the counts as we go
+				double sum = 0;
+				for (int pattern = 0; pattern < counts.length; pattern++) {
+					int count = counts[pattern];
+					if (count == 0) continue;
+					sum += count * Math.log(count);
+					counts[pattern] = 0;
+				}
+				entropies[guess] = (Math.log(total) - sum / total) / Math.log(2);
+			}
+		}
+	}
+
+	/**
+	 * This class represents a single recommended guess
+	 */
+	public static class Recommendation {
+
+		private final String word;
+		private final double entropy;
+		private final boolean possibleAnswer;
+
+		/**
+		 * @param word - the recommended guess
+		 * @param entropy - the expected information from this guess, in bits
+		 * @param possibleAnswer - whether this guess could still be the answer
+		 */
+		public Recommendation(String word, double entropy, boolean possibleAnswer) {
+			this.word = word;
+			this.entropy = entropy;
+			this.possibleAnswer = possibleAnswer;
+		}
+
+		/**
+		 * @return the recommended guess
+		 */
+		public String getWord() {
+			return word;
+		}
+
+		/**
+		 * @return the expected information from this guess, in bits
+		 */
+		public double getEntropy() {
+			return entropy;
+		}
+
+		/**
+		 * @return whether this guess could still be the answer
+		 */
+		public boolean isPossibleAnswer() {
+			return possibleAnswer;
+		}
+
+		/**
+		 * @return the guess and its information, like "CRANE (5.89 bits)"
+		 */
+		@Override
+		public String toString() {
+			return String.format("%s (%.2f bits)", word, entropy);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package model;
+
+import utilities.Guess;
+import utilities.INDEX_RESULT;
+
+/**
+ * @author Bennett Brixen
+ * This class represents something that happened in a game of wordle, published by the model to anyone subscribed.
+ *
+ * Subscribers get events on other threads, after the model has moved on, so every event carries a copy
+ * of the game as it was when the event happened instead of a reference to the model:
+ * 	NEW_GAME - a game was created, no guess has been made
+ * 	GUESS_SCORED - a guess was made, this is published for every guess
+ * 	GAME_WON - the last guess was the answer, published right after its GUESS_SCORED
+ * 	GAME_LOST - the last guess used up every row without finding the answer, published right after its GUESS_SCORED
+ */
+public final class GameEvent {
+
+	/**
+	 * The kinds of events
+	 */
+	public enum Type {
+		NEW_GAME, GUESS_SCORED, GAME_WON, GAME_LOST
+	}
+
+	private final Type type;
+	private final long gameId;
+	private final Guess guess;
+	private final Guess[] progress;
+	private final INDEX_RESULT[] guessedCharacters;
+	private final int guessCount;
+	private final int remainingCount;
+	private final String answer;
+
+	/**
+	 * @param type the kind of event
+	 * @param gameId the id of the game this happened in
+	 * @param guess the guess that was just made, or null for NEW_GAME
+	 * @param progress every row of the game (copied)
+	 * @param guessedCharacters the status of every character (copied)
+	 * @param guessCount the number of guesses made
+	 * @param remainingCount the number of words that could still be the answer, or -1 if it is not tracked
+	 * @param answer the answer, only given once the game is over
+	 */
+	GameEvent(Type type, long gameId, Guess guess, Guess[] progress, INDEX_RESULT[] guessedCharacters,
+			  int guessCount, int remainingCount, String answer) {
+		this.type = type;
+		this.gameId = gameId;
+		this.guess = guess;
+		this.progress = progress.clone();
+		this.guessedCharacters = guessedCharacters.clone();
+		this.guessCount = guessCount;
+		this.remainingCount = remainingCount;
+		this.answer = answer;
+	}
+
+	/**
+	 * @return the kind of event
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the id of the game this happened in, the same as WordleModel.getGameId
+	 */
+	public long getGameId() {
+		return gameId;
+	}
+
+	/**
+	 * @return the guess that was just made, or null for NEW_GAME
+	 */
+	public Guess getGuess() {
+		return guess;
+	}
+
+	/**
+	 * @return every row of the game, rows that have not been guessed yet are blank
+	 */
+	public Guess[] getProgress() {
+		return progress.clone();
+	}
+
+	/**
+	 * @return the status of every character, in alphabetical order
+	 */
+	public INDEX_RESULT[] getGuessedCharacters() {
+		return guessedCharacters.clone();
+	}
+
+	/**
+	 * @return the number of guesses made
+	 */
+	public int getGuessCount() {
+		return guessCount;
+	}
+
+	/**
+	 * @return the number of words that could still be the answer, or -1 if the game does not track them
+	 */
+	public int getRemainingCount() {
+		return remainingCount;
+	}
+
+	/**
+	 * @return true if the game is finished
+	 */
+	public boolean isGameOver() {
+		return answer != null;
+	}
+
+	/**
+	 * @return the answer, or null if the game is not over yet
+	 */
+	public String getAnswer() {
+		return answer;
+	}
+}
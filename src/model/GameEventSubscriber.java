@@ -0,0 +1,63 @@
+package model;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * @author Bennett Brixen
+ * This class subscribes a handler to a stream of GameEvents, running the handler on a chosen executor
+ * (the gui passes Platform::runLater so its labels are only touched on the FX thread).
+ *
+ * It asks for one event at a time and only asks for the next once the handler has finished with the last one.
+ * Events that come in while the handler is busy wait in the publisher's buffer, and if that fills up the
+ * publisher drops them instead of waiting, so a slow handler never holds up a game (see WordleModel.publish).
+ *
+ * If the stream fails, for example because the handler threw, no more events come. The error is given to the view's
+ * error handler on the same executor, so it can tell the player instead of waiting for an event forever.
+ */
+public class GameEventSubscriber implements Flow.Subscriber<GameEvent> {
+
+	private final Consumer<GameEvent> handler;
+	private final Consumer<Throwable> errorHandler;
+	private final Executor delivery;
+	private Flow.Subscription subscription;
+
+	/**
+	 * @param handler what to do with each event
+	 * @param errorHandler what to do if the stream fails, after which no more events come
+	 * @param delivery where to run the handlers, Runnable::run runs them on the publisher's thread
+	 */
+	public GameEventSubscriber(Consumer<GameEvent> handler, Consumer<Throwable> errorHandler, Executor delivery) {
+		this.handler = handler;
+		this.errorHandler = errorHandler;
+		this.delivery = delivery;
+	}
+
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+		this.subscription = subscription;
+		subscription.request(1);
+	}
+
+	@Override
+	public void onNext(GameEvent event) {
+		delivery.execute(() -> {
+			try {
+				handler.accept(event);
+			} finally {
+				subscription.request(1);
+			}
+		});
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		delivery.execute(() -> errorHandler.accept(throwable));
+	}
+
+	@Override
+	public void onComplete() {
+		// nothing to clean up, the publisher closes when the program is done with it
+	}
+}
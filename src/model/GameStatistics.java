@@ -0,0 +1,190 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Bennett Brixen
+ * This class keeps running totals of every game that has ended: how many were played and won, how many guesses the
+ * wins took, the current and longest winning streak, and how often each answer was solved.
+ * A view makes one for the person playing and gives it to each WordleController with setStatistics, which adds
+ * the game when it ends. Games played by simulations or scripts are not given one, so they never count.
+ *
+ * Nothing here takes a lock once an answer has been seen before. The counts are LongAdders, which spread updates
+ * out over cells so games ending on different threads do not fight over one counter, and the streaks are atomics.
+ * With games ending on many threads at once the streak follows the order they happened to end in.
+ *
+ * A Snapshot adds up the counters without stopping anyone, so it can be a game or two behind the live counts, but
+ * won is always read before played so a snapshot never has more wins than games.
+ */
+public class GameStatistics {
+
+    public static final int MAX_GUESSES_SHOWN = 8; // wins that took more guesses than this share the last bucket
+
+    private final LongAdder played = new LongAdder();
+    private final LongAdder won = new LongAdder();
+    private final LongAdder[] guesses = new LongAdder[MAX_GUESSES_SHOWN]; // wins by number of guesses, 1 at [0]
+    private final AtomicLong currentStreak = new AtomicLong();
+    private final AtomicLong maxStreak = new AtomicLong();
+    private final ConcurrentHashMap<String, Answer> answers = new ConcurrentHashMap<>();
+
+    public GameStatistics() {
+        for (int i = 0; i < guesses.length; i++) guesses[i] = new LongAdder();
+    }
+
+    /**
+     * This adds a game that just ended
+     *
+     * @param answer - the answer of the game, in uppercase
+     * @param won - true if the answer was guessed
+     * @param guessCount - the number of guesses made
+     */
+    public void record(String answer, boolean won, int guessCount) {
+        // played goes up before won, and snapshots read them the other way around
+        played.increment();
+        Answer totals = answers.get(answer); // computeIfAbsent can lock the bin even when the answer is there
+        if (totals == null) totals = answers.computeIfAbsent(answer, word -> new Answer());
+        totals.played.increment();
+
+        if (won) {
+            this.won.increment();
+            totals.won.increment();
+            guesses[Math.min(Math.max(guessCount, 1), MAX_GUESSES_SHOWN) - 1].increment();
+            long streak = currentStreak.incrementAndGet();
+            if (streak > maxStreak.get()) maxStreak.accumulateAndGet(streak, Math::max);
+        } else {
+            currentStreak.set(0);
+        }
+    }
+
+    /**
+     * This adds up every counter
+     *
+     * @return the statistics so far
+     */
+    public Snapshot snapshot() {
+        long[] histogram = new long[guesses.length];
+        for (int i = 0; i < histogram.length; i++) histogram[i] = guesses[i].sum();
+        long wins = won.sum();
+        long streak = currentStreak.get();
+        return new Snapshot(played.sum(), wins, histogram, streak, Math.max(maxStreak.get(), streak));
+    }
+
+    /**
+     * Gets the number of games that have had an answer
+     *
+     * @param answer - the answer, in uppercase
+     * @return the number of games with that answer that have ended
+     */
+    public long getAnswerGames(String answer) {
+        Answer totals = answers.get(answer);
+        return totals == null ? 0 : totals.played.sum();
+    }
+
+    /**
+     * Gets the number of games with an answer that were won
+     *
+     * @param answer - the answer, in uppercase
+     * @return the number of games with that answer that were won
+     */
+    public long getAnswerWins(String answer) {
+        Answer totals = answers.get(answer);
+        return totals == null ? 0 : totals.won.sum();
+    }
+
+    /**
+     * Gets the answers that have been solved the least often
+     *
+     * @param k - the number of answers to return
+     * @param minGames - answers that have been played fewer times than this are left out
+     * @return up to k answers, lowest solve rate first
+     */
+    public List<String> hardestAnswers(int k, long minGames) {
+        List<Map.Entry<String, Double>> rates = new ArrayList<>();
+        answers.forEach((answer, totals) -> {
+            long wins = totals.won.sum(); // read before played, like in snapshot
+            long games = totals.played.sum();
+            if (games > 0 && games >= minGames) rates.add(Map.entry(answer, (double) wins / games));
+        });
+        rates.sort(Map.Entry.comparingByValue());
+
+        List<String> hardest = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, rates.size()); i++) hardest.add(rates.get(i).getKey());
+        return hardest;
+    }
+
+    /**
+     * This holds the counters of one answer
+     */
+    private static final class Answer {
+        private final LongAdder played = new LongAdder();
+        private final LongAdder won = new LongAdder();
+    }
+
+    /**
+     * This class represents the statistics at one moment. It never changes after it is made.
+     */
+    public static final class Snapshot {
+        private final long played;
+        private final long won;
+        private final long[] guesses;
+        private final long currentStreak;
+        private final long maxStreak;
+
+        private Snapshot(long played, long won, long[] guesses, long currentStreak, long maxStreak) {
+            this.played = played;
+            this.won = won;
+            this.guesses = guesses;
+            this.currentStreak = currentStreak;
+            this.maxStreak = maxStreak;
+        }
+
+        /**
+         * @return the number of games that have ended
+         */
+        public long getPlayed() {
+            return played;
+        }
+
+        /**
+         * @return the number of games that were won
+         */
+        public long getWon() {
+            return won;
+        }
+
+        /**
+         * @return the fraction of games that were won, or 0 if none have been played
+         */
+        public double getWinRate() {
+            return played == 0 ? 0 : (double) won / played;
+        }
+
+        /**
+         * Gets the number of wins that took each number of guesses
+         *
+         * @return the wins, the ones in 1 guess at [0]. The last one also has every win that took more guesses
+         */
+        public long[] getGuessHistogram() {
+            return guesses.clone();
+        }
+
+        /**
+         * @return the number of games won in a row, up to the last one
+         */
+        public long getCurrentStreak() {
+            return currentStreak;
+        }
+
+        /**
+         * @return the most games won in a row
+         */
+        public long getMaxStreak() {
+            return maxStreak;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package model;
+
+import utilities.WordList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author Bennett Brixen
+ * This interface represents a way of playing wordle without a person, used by SimulationEngine.
+ *
+ * A strategy looks at the model (the progress so far and the words that could still be the answer) and picks
+ * the next guess. The engine gives every thread its own strategy, so a strategy can keep whatever it wants
+ * between calls without worrying about other threads.
+ */
+public interface GuessingStrategy {
+
+	/**
+	 * This picks the next guess for a game
+	 *
+	 * @param model the game being played, which must have been created with a DictionaryIndex
+	 * @return the next guess, which must be a word in the dictionary
+	 */
+	String nextGuess(WordleModel model);
+
+	/**
+	 * A strategy that guesses a random word out of the ones that could still be the answer
+	 *
+	 * @param dictionary the dictionary the models are using
+	 * @return the strategy
+	 */
+	static GuessingStrategy randomCandidate(WordList dictionary) {
+		return model -> {
+			int[] remaining = model.getRemainingWords();
+			return dictionary.getWord(remaining[ThreadLocalRandom.current().nextInt(remaining.length)]);
+		};
+	}
+
+	/**
+	 * A strategy that always guesses the word EntropySolver recommends. The first guess is the same for every
+	 * game, so it is only worked out once per strategy.
+	 *
+	 * @param solver the solver for the dictionary the models are using
+	 * @return the strategy
+	 */
+	static GuessingStrategy entropy(EntropySolver solver) {
+		return new GuessingStrategy() {
+			private String opener;
+
+			@Override
+			public String nextGuess(WordleModel model) {
+				if (model.getGuessCount() == 0 && opener != null) return opener;
+
+				List<EntropySolver.Recommendation> best = solver.recommend(model.getRemainingWords(), 1);
+				if (model.getGuessCount() == 0) opener = best.get(0).getWord();
+				return best.get(0).getWord();
+			}
+		};
+	}
+}
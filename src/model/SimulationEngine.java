@@ -0,0 +1,160 @@
+package model;
+
+import utilities.DictionaryRegistry;
+import utilities.WordList;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * @author Bennett Brixen
+ * This class plays complete games of wordle with no view, to see how well a GuessingStrategy does.
+ *
+ * It plays one game per answer, either every word in the dictionary or a random sample of them. The answers
+ * are split into one slice per thread, and every thread has its own strategy and its own counts,
+ * so nothing is shared until the counts are added up at the end.
+ *
+ * Usage: SimulationEngine letters [games] [random|entropy]
+ */
+public class SimulationEngine {
+
+	private final DictionaryRegistry.Entry dictionary;
+	private final int maxGuesses;
+	private final Supplier<GuessingStrategy> strategies;
+	private final int threads;
+
+	/**
+	 * This creates an engine that uses every core
+	 *
+	 * @param dictionary the dictionary to take answers from
+	 * @param maxGuesses the number of guesses allowed in each game
+	 * @param strategies creates the strategy for each thread
+	 */
+	public SimulationEngine(DictionaryRegistry.Entry dictionary, int maxGuesses, Supplier<GuessingStrategy> strategies) {
+		this(dictionary, maxGuesses, strategies, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * This creates an engine
+	 *
+	 * @param dictionary the dictionary to take answers from
+	 * @param maxGuesses the number of guesses allowed in each game
+	 * @param strategies creates the strategy for each thread
+	 * @param threads the number of games to play at once
+	 */
+	public SimulationEngine(DictionaryRegistry.Entry dictionary, int maxGuesses, Supplier<GuessingStrategy> strategies,
+							int threads) {
+		this.dictionary = dictionary;
+		this.maxGuesses = maxGuesses;
+		this.strategies = strategies;
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * This plays a game for a random sample of the dictionary words
+	 *
+	 * @param games the number of games to play
+	 * @param seed the seed for picking the answers
+	 * @return the results of every game
+	 */
+	public SimulationResult runSample(int games, long seed) {
+		Random random = new Random(seed);
+		int[] answers = new int[games];
+		for (int i = 0; i < games; i++) answers[i] = random.nextInt(dictionary.getWords().size());
+		return run(answers);
+	}
+
+	/**
+	 * This plays one game for every word in the dictionary
+	 *
+	 * @return the results of every game
+	 */
+	public SimulationResult runAll() {
+		int[] answers = new int[dictionary.getWords().size()];
+		for (int i = 0; i < answers.length; i++) answers[i] = i;
+		return run(answers);
+	}
+
+	/**
+	 * This plays one game for each answer
+	 *
+	 * @param answers the dictionary index of the answer of each game
+	 * @return the results of every game
+	 */
+	public SimulationResult run(int[] answers) {
+		long start = System.nanoTime();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<long[]>> slices = new ArrayList<>();
+			int sliceSize = (answers.length + threads - 1) / threads;
+			for (int from = 0; from < answers.length; from += sliceSize) {
+				int sliceStart = from, sliceEnd = Math.min(answers.length, from + sliceSize);
+				slices.add(pool.submit(() -> playSlice(answers, sliceStart, sliceEnd)));
+			}
+
+			long[] guessCounts = new long[maxGuesses + 1]; // [0] is losses, [n] is wins in n guesses
+			for (Future<long[]> slice : slices) {
+				long[] counts = slice.get();
+				for (int i = 0; i < counts.length; i++) guessCounts[i] += counts[i];
+			}
+			return new SimulationResult(guessCounts, System.nanoTime() - start);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Simulation was interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Simulation failed", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * This plays the games for one slice of the answers on the current thread
+	 *
+	 * @return the guess counts of this slice, [0] is losses and [n] is wins in n guesses
+	 */
+	private long[] playSlice(int[] answers, int from, int to) {
+		GuessingStrategy strategy = strategies.get();
+		WordList words = dictionary.getWords();
+		long[] guessCounts = new long[maxGuesses + 1];
+
+		for (int i = from; i < to; i++) {
+			WordleModel model = new WordleModel(words.getWord(answers[i]), maxGuesses, dictionary.getIndex());
+			boolean won = false;
+			while (!model.isGameOver()) {
+				String guess = strategy.nextGuess(model);
+				model.handleGuess(guess);
+				won = guess.equals(model.getAnswer());
+			}
+			guessCounts[won ? model.getGuessCount() : 0]++;
+		}
+		return guessCounts;
+	}
+
+	/**
+	 * This runs a simulation from the command line and prints the results
+	 *
+	 * @param args the number of letters, then optionally the number of games (all words if left out)
+	 *             and the strategy (random or entropy)
+	 * @throws IOException if the dictionary could not be read
+	 */
+	public static void main(String[] args) throws IOException {
+		int letters = Integer.parseInt(args[0]);
+		DictionaryRegistry.Entry dictionary = DictionaryRegistry.get(letters);
+		EntropySolver solver = new EntropySolver(dictionary.getWords(), dictionary.getPatternMatrix());
+		boolean entropy = args.length > 2 && args[2].equals("entropy");
+
+		SimulationEngine engine = new SimulationEngine(dictionary, 6, () -> entropy
+				? GuessingStrategy.entropy(solver) : GuessingStrategy.randomCandidate(dictionary.getWords()));
+		SimulationResult result = args.length > 1
+				? engine.runSample(Integer.parseInt(args[1]), System.nanoTime()) : engine.runAll();
+		System.out.println(result);
+	}
+}
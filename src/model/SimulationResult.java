@@ -0,0 +1,84 @@
+package model;
+
+/**
+ * @author Bennett Brixen
+ * This class represents the results of a batch of simulated games from SimulationEngine.
+ * It stores how many games were won in each number of guesses, how many were lost, and how long it took.
+ */
+public class SimulationResult {
+
+	private final long[] guessCounts; // [0] is losses, [n] is wins in n guesses
+	private final long elapsedNanos;
+
+	/**
+	 * @param guessCounts the number of games lost ([0]) and won in each number of guesses ([n])
+	 * @param elapsedNanos how long the games took to play
+	 */
+	public SimulationResult(long[] guessCounts, long elapsedNanos) {
+		this.guessCounts = guessCounts.clone();
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return the number of games played
+	 */
+	public long getGames() {
+		long games = 0;
+		for (long count : guessCounts) games += count;
+		return games;
+	}
+
+	/**
+	 * @return the number of games won
+	 */
+	public long getWins() {
+		return getGames() - guessCounts[0];
+	}
+
+	/**
+	 * @return the fraction of games won, between 0 and 1
+	 */
+	public double getWinRate() {
+		long games = getGames();
+		return games == 0 ? 0 : (double) getWins() / games;
+	}
+
+	/**
+	 * @param guesses a number of guesses, from 1 to the max guesses
+	 * @return the number of games won in exactly that many guesses
+	 */
+	public long getWinsIn(int guesses) {
+		return guessCounts[guesses];
+	}
+
+	/**
+	 * @return the average number of guesses in the games that were won
+	 */
+	public double getAverageGuesses() {
+		long total = 0;
+		for (int i = 1; i < guessCounts.length; i++) total += i * guessCounts[i];
+		long wins = getWins();
+		return wins == 0 ? 0 : (double) total / wins;
+	}
+
+	/**
+	 * @return the number of games played per second
+	 */
+	public double getGamesPerSecond() {
+		return elapsedNanos == 0 ? 0 : getGames() * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * @return a summary of the results, including the guess distribution
+	 */
+	@Override
+	public String toString() {
+		StringBuilder summary = new StringBuilder();
+		summary.append(String.format("%d games, %.2f%% won, %.3f guesses on average, %.0f games/s%n",
+				getGames(), 100 * getWinRate(), getAverageGuesses(), getGamesPerSecond()));
+		for (int i = 1; i < guessCounts.length; i++)
+			summary.append(String.format("%d: %d%n", i, guessCounts[i]));
+		summary.append(String.format("X: %d", guessCounts[0]));
+		return summary.toString();
+	}
+}
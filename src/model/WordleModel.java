@@ -1,25 +1,63 @@
 package model;
 
+import utilities.DictionaryIndex;
+import utilities.EngineMetrics;
+import utilities.FlightEvents;
+import utilities.GameJournal;
 import utilities.Guess;
 import utilities.INDEX_RESULT;
+import utilities.PatternScorer;
+import utilities.WordDictionary;
 import java.util.Arrays;
-import java.util.Observable;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 /**
  * @author Bennett Brixen
  * This class represents the wordle word. It stores the correct answer and the characters that have been guessed.
  * It uses INDEX_RESULT to distinguish between correct/incorrect/unguessed/correct but wrong place.
- * It contains multiple functions like correctLettersCorrectPlaces and correctLettersWrongPlaces which
- * analyze the word character by character returning INDEX_RESULT's for each character in
- * a guess or the guessed characters
+ * Guesses are scored by PatternScorer, which packs the result of every character into a single pattern,
+ * and that pattern is unpacked into INDEX_RESULT's for each character in a guess or the guessed characters
  *
  * It also stores every guess made into the model, which are used to fill out the grid of characters
+ *
+ * If it is given a DictionaryIndex, it also keeps track of which dictionary words could still be the answer,
+ * narrowing them down after every guess.
+ *
+ * If it is given a publisher, it publishes a GameEvent when the game starts, after every guess, and when the game ends.
+ * Every event is offered without waiting, so if a subscriber falls a whole buffer (256 events) behind its events are
+ * dropped rather than slowing down handleGuess. That includes GAME_WON and GAME_LOST, so views have to find out the
+ * game is over from the controller, not by waiting for the event.
+ *
+ * How long guesses take to handle and publish, and how many games start and end, is counted in the EngineMetrics
+ * the model was made with, if any. Simulations make models without them so bots do not show up as players.
+ * Games starting and ending and every guess handled are also Flight Recorder events (see FlightEvents).
+ *
+ * A finished game can be added to a GameJournal with appendTo, which writes the packed guesses and patterns the
+ * model already worked out while scoring them. The controller does this for games that have a journal.
+ *
+ * The static score methods score batches of guesses against batches of answers without touching any game,
+ * writing the patterns (see PatternScorer) into an int[] the caller owns. Big batches are split across cores.
  */
-public class WordleModel extends Observable {
+public class WordleModel {
+
+	private static final int BATCH_CHUNK = 1 << 14; // patterns scored per task in a parallel batch
+	private static final AtomicLong GAME_IDS = new AtomicLong();
 
 	private final String answer;
+	private final long packedAnswer;
 	private final INDEX_RESULT[] guessedCharacters;
 	private final Guess[] progress;
+	private final DictionaryIndex index;
+	private final long[] candidates; // bitset of the words that could still be the answer
+	private final SubmissionPublisher<GameEvent> events;
+	private final EngineMetrics metrics; // null if this game is not counted
+	private final long gameId = GAME_IDS.incrementAndGet();
+	private final long startMillis = System.currentTimeMillis();
+	private long endMillis;
+	private final long[] packedGuesses; // kept for the journal, along with the pattern of each guess
+	private final int[] patterns;
 	private int row;
 	private boolean gameOver;
 
@@ -29,16 +67,72 @@ public class WordleModel extends Observable {
 	 * It has useful functions for handling guesses against the word
 	 *
 	 * @param answer the correct wordle word
+	 * @param maxRows the number of guesses allowed
 	 */
 	public WordleModel(String answer, int maxRows) {
+		this(answer, maxRows, null);
+	}
+
+	/**
+	 * This creates a wordle model which also tracks the words that could still be the answer
+	 *
+	 * @param answer the correct wordle word
+	 * @param maxRows the number of guesses allowed
+	 * @param index the index of the dictionary, or null to not track the remaining words
+	 */
+	public WordleModel(String answer, int maxRows, DictionaryIndex index) {
+		this(answer, maxRows, index, null);
+	}
+
+	/**
+	 * This creates a wordle model which publishes what happens in the game
+	 *
+	 * @param answer the correct wordle word
+	 * @param maxRows the number of guesses allowed
+	 * @param index the index of the dictionary, or null to not track the remaining words
+	 * @param events where to publish GameEvents, or null to not publish any
+	 */
+	public WordleModel(String answer, int maxRows, DictionaryIndex index, SubmissionPublisher<GameEvent> events) {
+		this(answer, maxRows, index, events, null);
+	}
+
+	/**
+	 * This creates a wordle model which publishes what happens in the game and counts it in the engine metrics
+	 *
+	 * @param answer the correct wordle word
+	 * @param maxRows the number of guesses allowed
+	 * @param index the index of the dictionary, or null to not track the remaining words
+	 * @param events where to publish GameEvents, or null to not publish any
+	 * @param metrics where to count the game, usually EngineMetrics.INSTANCE, or null to not count it
+	 */
+	public WordleModel(String answer, int maxRows, DictionaryIndex index, SubmissionPublisher<GameEvent> events,
+					   EngineMetrics metrics) {
+		this.index = index;
+		this.events = events;
+		this.metrics = metrics;
+		this.candidates = index == null ? null : index.all();
 		this.row = 0;
 		this.gameOver = false;
 		this.answer = answer.toUpperCase();
+		this.packedAnswer = WordDictionary.encode(this.answer, this.answer.length());
 
 		guessedCharacters = new INDEX_RESULT[26];
 		Arrays.fill(guessedCharacters, INDEX_RESULT.UNGUESSED);
 		this.progress = new Guess[maxRows];
+		this.packedGuesses = new long[maxRows];
+		this.patterns = new int[maxRows];
 		this.fillProgress();
+		if (metrics != null) metrics.gameStarted();
+		if (FlightEvents.isRecording()) {
+			FlightEvents.GameStart startEvent = new FlightEvents.GameStart();
+			if (startEvent.shouldCommit()) {
+				startEvent.gameId = gameId;
+				startEvent.letters = this.answer.length();
+				startEvent.maxGuesses = maxRows;
+				startEvent.commit();
+			}
+		}
+		publish(GameEvent.Type.NEW_GAME, null);
 	}
 
 	/**
@@ -56,53 +150,6 @@ public class WordleModel extends Observable {
 		Arrays.fill(progress, defaultGuess);
 	}
 
-	/**
-	 * This returns a list of INDEX_RESULTS for all the semi-correct positions
-	 *
-	 * It takes in a list of INDEX_RESULTS corresponding to each letter in the guess
-	 * This is origionally filled with INCORRECT, and this will put CORRECT_WRONG_INDEX in every
-	 * location that has a letter which appears in the word. This will put CORRECT_WRONG_INDEX in
-	 * locations which should have CORRECT, which is why we then call correctLettersCorrectPlaces to overwrite these.
-	 *
-	 * After both functions have called we have properly analyzed the word
-	 *
-	 * @param guess the string being guessed
-	 * @param combination the list of INDEX_RESULTS corresponding to each letter,
-	 *                       this will be filled with INCORRECT
-	 */
-	private void correctLettersWrongPlaces(String guess, INDEX_RESULT[] combination, String tempAnswer) {
-		for (int i = 0; i < guess.length(); i++) {
-			// we do "" + charAt to implicitly cast to a string for contains()
-			if (combination[i] != INDEX_RESULT.CORRECT && tempAnswer.contains("" + guess.charAt(i))) {
-				combination[i] = INDEX_RESULT.CORRECT_WRONG_INDEX;
-				tempAnswer = tempAnswer.replaceFirst(""+guess.charAt(i), ".");
-			}
-		}
-	}
-
-	/**
-	 * This returns a list of INDEX_RESULTS for all the correct positions
-	 *
-	 * It takes in a list of INDEX_RESULTS corresponding to each letter in the guess, and it
-	 * fills it with CORRECT everywhere there is a correct letter, and leaves the other locations unmodified
-	 * After this returns, the list will contain a mix of CORRECT, INCORRECT, and CORRECT_WRONG_INDEX
-	 * all in the needed locations, so analyzing the correct-ness of the word is finished
-	 *
-	 * @param guess the string being guessed
-	 * @param combination the list of INDEX_RESULTS corresponding to each letter,
-	 *                       this will be a mix of INCORRECT and CORRECT_WRONG_INDEX
-	 */
-	private String correctLettersCorrectPlaces(String guess, INDEX_RESULT[] combination) {
-		String tempAnswer = this.answer;
-		for (int i = 0; i < answer.length(); i++) {
-			if (answer.charAt(i) == guess.charAt(i)) {
-				combination[i] = INDEX_RESULT.CORRECT;
-				tempAnswer = tempAnswer.replaceFirst(""+guess.charAt(i), ".");
-			}
-		}
-		return tempAnswer;
-	}
-
 	/**
 	 * Gets the answer of this wordle model
 	 *
@@ -154,6 +201,44 @@ public class WordleModel extends Observable {
 		return this.progress;
 	}
 
+	/**
+	 * Gets the number of dictionary words that fit every guess so far
+	 *
+	 * @return the number of words that could still be the answer, or -1 if this model has no dictionary index
+	 */
+	public int getRemainingCount() {
+		if (index == null) return -1;
+		return DictionaryIndex.count(candidates);
+	}
+
+	/**
+	 * Gets the dictionary index of every word that fits every guess so far
+	 *
+	 * @return the indices of the words that could still be the answer, or null if this model has no dictionary index
+	 */
+	public int[] getRemainingWords() {
+		if (index == null) return null;
+		return DictionaryIndex.toIndices(candidates);
+	}
+
+	/**
+	 * Gets the number of guesses made so far
+	 *
+	 * @return the number of guesses made
+	 */
+	public int getGuessCount() {
+		return row;
+	}
+
+	/**
+	 * Gets the id of this game, which is in every event it publishes
+	 *
+	 * @return the id of this game
+	 */
+	public long getGameId() {
+		return gameId;
+	}
+
 	public boolean isGameOver() {
 		return gameOver;
 	}
@@ -168,30 +253,172 @@ public class WordleModel extends Observable {
 	 * @param guess the word being guessed
 	 */
 	public void handleGuess(String guess) {
-		// starting off, every letter is incorrect
-		INDEX_RESULT[] combination = new INDEX_RESULT[guess.length()];
-		Arrays.fill(combination, INDEX_RESULT.INCORRECT);
+		long start = metrics != null ? System.nanoTime() : 0; // only timed when it is counted
+		FlightEvents.HandleGuess event = FlightEvents.isRecording() ? new FlightEvents.HandleGuess() : null;
+		if (event != null) event.begin();
+		// scoring the guess into a pattern, then unpacking it into a result for each letter
+		int letters = answer.length();
+		long packedGuess = WordDictionary.encode(guess, letters);
+		int pattern = PatternScorer.score(packedGuess, packedAnswer, letters);
+		INDEX_RESULT[] combination = new INDEX_RESULT[letters];
+		PatternScorer.toResults(pattern, combination);
 
-		// then fill in the correct ones
-		String tempAnswer = correctLettersCorrectPlaces(guess, combination);
-		// fill in the semi-right ones first
-		correctLettersWrongPlaces(guess, combination, tempAnswer);
+		// narrowing down the words that could still be the answer
+		if (index != null) index.filter(candidates, packedGuess, pattern);
 
 		// now combination is a mix of correct, incorrect, and semi-correct
 		// so we pass it into update guessed characters so they have accurate information
 		updateGuessedCharacters(guess, combination);
 
 		// creating guess, storing it and updating needed values
-		Guess guessResult = new Guess(guess, combination, guess.equalsIgnoreCase(this.answer));
+		Guess guessResult = new Guess(guess, combination, pattern == PatternScorer.winningPattern(letters));
 		this.progress[row] = guessResult;
+		packedGuesses[row] = packedGuess;
+		patterns[row] = pattern;
 		row ++;
 
 		// check if the words are the same or if they have used all their guesses
 		if (guessResult.getIsCorrect() || row == this.getProgress().length) gameOver = true;
+		if (gameOver) {
+			endMillis = System.currentTimeMillis();
+			if (metrics != null) metrics.gameFinished(guessResult.getIsCorrect());
+			if (FlightEvents.isRecording()) {
+				FlightEvents.GameEnd endEvent = new FlightEvents.GameEnd();
+				if (endEvent.shouldCommit()) {
+					endEvent.gameId = gameId;
+					endEvent.won = guessResult.getIsCorrect();
+					endEvent.guesses = row;
+					endEvent.gameMillis = endMillis - startMillis;
+					endEvent.commit();
+				}
+			}
+		}
+
+		// telling the subscribers
+		publish(GameEvent.Type.GUESS_SCORED, guessResult);
+		if (gameOver) publish(guessResult.getIsCorrect() ? GameEvent.Type.GAME_WON : GameEvent.Type.GAME_LOST, guessResult);
+
+		if (metrics != null) metrics.guessHandled(System.nanoTime() - start);
+		if (event != null && event.shouldCommit()) {
+			event.gameId = gameId;
+			event.letters = letters;
+			event.pattern = pattern;
+			event.row = row;
+			event.remaining = getRemainingCount();
+			event.commit();
+		}
+	}
+
+	/**
+	 * This adds this game to a journal. It does nothing until the game is over
+	 *
+	 * @param journal the journal
+	 */
+	public void appendTo(GameJournal journal) {
+		if (!gameOver) return;
+		journal.append(gameId, startMillis, endMillis, answer.length(), packedAnswer, progress[row - 1].getIsCorrect(),
+				row, packedGuesses, patterns);
+	}
+
+	/**
+	 * This offers an event to the subscribers without waiting. Subscribers whose buffers are full miss it
+	 *
+	 * @param type the kind of event
+	 * @param guess the guess that was just made, or null for a new game
+	 */
+	private void publish(GameEvent.Type type, Guess guess) {
+		if (events == null || events.isClosed()) return;
+		long start = metrics != null ? System.nanoTime() : 0;
+		GameEvent event = new GameEvent(type, gameId, guess, progress, guessedCharacters, row, getRemainingCount(),
+				gameOver ? answer : null);
+		int lag = events.offer(event, (subscriber, dropped) -> false);
+		if (metrics != null) metrics.eventPublished(System.nanoTime() - start, lag < 0); // negative means some were dropped
+	}
+
+	/**
+	 * This scores one guess against many answers, without changing any game
+	 *
+	 * @param guess the word being guessed
+	 * @param answers the answers to score it against, all the same length as the guess
+	 * @param patterns filled with the pattern against each answer, it must be at least as long as answers
+	 */
+	public static void score(String guess, String[] answers, int[] patterns) {
+		score(new String[] {guess}, answers, patterns);
+	}
+
+	/**
+	 * This scores many guesses against one answer, without changing any game
+	 *
+	 * @param guesses the words being guessed, all the same length as the answer
+	 * @param answer the answer to score them against
+	 * @param patterns filled with the pattern of each guess, it must be at least as long as guesses
+	 */
+	public static void score(String[] guesses, String answer, int[] patterns) {
+		score(guesses, new String[] {answer}, patterns);
+	}
+
+	/**
+	 * This scores every guess against every answer, without changing any game
+	 *
+	 * @param guesses the words being guessed
+	 * @param answers the answers to score them against, all the same length as the guesses
+	 * @param patterns filled with the patterns, the pattern of guess g against answer a is at
+	 *                    [g * answers.length + a], it must be at least guesses.length * answers.length long
+	 */
+	public static void score(String[] guesses, String[] answers, int[] patterns) {
+		if (answers.length == 0 || guesses.length == 0) return;
+		int letters = answers[0].length();
+		score(pack(guesses, letters), pack(answers, letters), letters, patterns);
+	}
+
+	/**
+	 * This scores every packed guess against every packed answer, without changing any game.
+	 * Packing once up front (see WordDictionary.encode) saves re-packing the same words batch after batch.
+	 *
+	 * @param guesses the packed guesses
+	 * @param answers the packed answers
+	 * @param letters the number of letters in every word
+	 * @param patterns filled with the patterns, the pattern of guess g against answer a is at
+	 *                    [g * answers.length + a], it must be at least guesses.length * answers.length long
+	 */
+	public static void score(long[] guesses, long[] answers, int letters, int[] patterns) {
+		long cells = (long) guesses.length * answers.length;
+		if (patterns.length < cells)
+			throw new IllegalArgumentException("The pattern buffer needs room for " + cells + " patterns");
 
-		// notifying observers
-		setChanged();
-		notifyObservers(guessResult);
+		if (cells <= BATCH_CHUNK) {
+			scoreCells(guesses, answers, letters, patterns, 0, (int) cells);
+			return;
+		}
+		int chunks = (int) ((cells + BATCH_CHUNK - 1) / BATCH_CHUNK);
+		IntStream.range(0, chunks).parallel().forEach(chunk -> scoreCells(guesses, answers, letters, patterns,
+				chunk * BATCH_CHUNK, (int) Math.min(cells, (long) (chunk + 1) * BATCH_CHUNK)));
+	}
+
+	/**
+	 * This scores a range of cells of a batch, walking the guess and answer along with the cell
+	 */
+	private static void scoreCells(long[] guesses, long[] answers, int letters, int[] patterns, int from, int to) {
+		int guess = from / answers.length, answer = from % answers.length;
+		for (int cell = from; cell < to; cell++) {
+			patterns[cell] = PatternScorer.score(guesses[guess], answers[answer], letters);
+			if (++answer == answers.length) {
+				answer = 0;
+				guess++;
+			}
+		}
 	}
 
+	/**
+	 * This packs every word of a batch, checking that they are all valid and the same length
+	 */
+	private static long[] pack(String[] words, int letters) {
+		long[] packed = new long[words.length];
+		for (int i = 0; i < words.length; i++) {
+			packed[i] = WordDictionary.encode(words[i], letters);
+			if (packed[i] <= 0)
+				throw new IllegalArgumentException(words[i] + " is not a " + letters + " letter word");
+		}
+		return packed;
+	}
 }
@@ -6,7 +6,13 @@ import java.util.*;
  * @author Bennett Brixen
  * This class represents a set using an array of elements
  *
- * It is a generic implementation (i feel like there is nothing else to say)
+ * It is a generic implementation. The elements are kept packed at the front of an array so any one of them
+ * can be picked by index (which is how a random wordle word used to be chosen), and next to that is an
+ * open addressing hash index that stores where in the array each element is. That makes add, contains and remove
+ * O(1) instead of scanning the whole array, so the set is fine with millions of elements.
+ *
+ * Removing an element moves the last element into its place instead of shifting everything down,
+ * so the order of the elements changes when something is removed (sets do not promise an order anyway).
  *
  * @param <E> - the type of object for the set
  */
@@ -15,6 +21,8 @@ public class ArraySet<E> extends AbstractSet<E> {
     private static final int DEFAULT_CAPACITY = 4;
     private int size;
     private E[] elements;
+    private int[] slots; // hash index, each slot holds (index in elements + 1), 0 marks an empty slot
+    private int modCount; // so iterators can tell the set was changed under them
 
     /**
      * This is the constructor, it creates the set
@@ -24,7 +32,22 @@ public class ArraySet<E> extends AbstractSet<E> {
      */
     public ArraySet() {
         this.size = 0;
-        elements = (E[]) new Object[DEFAULT_CAPACITY];
+        elements = newArray(DEFAULT_CAPACITY);
+        slots = new int[slotCount(DEFAULT_CAPACITY)];
+    }
+
+    /**
+     * This creates a set holding every element of a collection, dropping duplicates and nulls.
+     * The arrays are sized for the whole collection up front, so loading n elements is O(n)
+     *
+     * @param c - the elements to load
+     */
+    public ArraySet(Collection<? extends E> c) {
+        this.size = 0;
+        int capacity = Math.max(DEFAULT_CAPACITY, c.size());
+        elements = newArray(capacity);
+        slots = new int[slotCount(capacity)];
+        for (E elem : c) this.add(elem);
     }
 
     /**
@@ -46,13 +69,22 @@ public class ArraySet<E> extends AbstractSet<E> {
      */
     public void resize(boolean increase) {
         int newCapacity = 2 * elements.length; // double capacity for increase
-        if (!increase) newCapacity /=4; // half capacity if we want to decrease
-        E[] newArr = (E[]) new Object[newCapacity];
+        if (!increase) newCapacity = Math.max(DEFAULT_CAPACITY, Math.max(size, elements.length / 2)); // half capacity if we want to decrease
+        resizeTo(newCapacity);
+    }
 
-        for (int i = 0; i < this.elements.length && i < newCapacity; i++) {
-            newArr[i] = elements[i];
+    /**
+     * This moves the elements into an array of a new capacity and rebuilds the hash index to match
+     *
+     * @param capacity - the new capacity, at least size
+     */
+    private void resizeTo(int capacity) {
+        this.elements = Arrays.copyOf(elements, capacity);
+        this.slots = new int[slotCount(capacity)];
+        for (int i = 0; i < size; i++) {
+            int slot = ~findSlot(elements[i]); // every element is different, so it is never found
+            slots[slot] = i + 1;
         }
-        this.elements = newArr;
     }
 
     /**
@@ -63,11 +95,18 @@ public class ArraySet<E> extends AbstractSet<E> {
      */
     @Override
     public boolean add(E value) {
-        if (value == null || this.contains(value)) return false; // we dont add duplicates
+        if (value == null) return false;
+        int slot = findSlot(value);
+        if (slot >= 0) return false; // we dont add duplicates
 
-        if (size >= elements.length) resize (true);
+        if (size >= elements.length) {
+            resize(true);
+            slot = findSlot(value); // the index was rebuilt, so the empty slot moved
+        }
         elements[size] = value;
+        slots[~slot] = size + 1;
         this.size ++;
+        modCount ++;
         return true; // new item added
     }
 
@@ -97,6 +136,9 @@ public class ArraySet<E> extends AbstractSet<E> {
      */
     @Override
     public boolean addAll(Collection<? extends E> c) {
+        // making room for all of them at once, instead of doubling over and over
+        if (size + c.size() > elements.length) resizeTo(size + c.size());
+
         boolean changed = false; // the default is that it did not change
         for (E elem : c)
             if (this.add(elem)) changed = true;
@@ -112,7 +154,9 @@ public class ArraySet<E> extends AbstractSet<E> {
     @Override
     public void clear() {
         this.size = 0;
-        elements = (E[]) new Object[DEFAULT_CAPACITY];
+        elements = newArray(DEFAULT_CAPACITY);
+        slots = new int[slotCount(DEFAULT_CAPACITY)];
+        modCount ++;
     }
 
     /**
@@ -123,10 +167,7 @@ public class ArraySet<E> extends AbstractSet<E> {
      */
     @Override
     public boolean contains(Object o) {
-        for (E element : elements)
-            if (o != null && o.equals(element)) return true;
-
-        return false; // went through all elements and did not find o
+        return o != null && findSlot(o) >= 0;
     }
 
     /**
@@ -160,17 +201,8 @@ public class ArraySet<E> extends AbstractSet<E> {
     public boolean equals(Object o) {
         if (! (o instanceof Set otherSet)) return false; // we get to use a cool pattern variable
 
-        for (Object otherSetElement : otherSet)
-            if (! this.contains(otherSetElement)) {
-                return false; // does not contain so not equal
-            }
-
-        for (E elem : elements)
-            if (elem != null && ! otherSet.contains(elem)) {
-                return false; // does not contain so not equal
-            }
-
-        return true;
+        // the same size and every one of theirs is in here means every one of ours is in there too
+        return otherSet.size() == this.size && this.containsAll(otherSet);
     }
 
     /**
@@ -185,21 +217,33 @@ public class ArraySet<E> extends AbstractSet<E> {
     public boolean remove(Object o) {
         if (isEmpty() || o == null) return false;
 
-        for (int i = 0; i < elements.length; i++) {
-            E target = elements[i];
-            if (! o.equals(target)) continue; // skip if not equal
-            // now we remove
-            // shift everything back one
-            for (int j = i; j < elements.length - 1; j++)
-                elements[j] = elements[j+1];
-
-            this.size --;
-            if ((this.size * 2) < this.elements.length && this.elements.length > DEFAULT_CAPACITY)
-                resize(false); // it is too large so we shrink back down
-            return true; // successfully removed, data changed
+        int slot = findSlot(o);
+        if (slot < 0) return false;
+        removeAt(slots[slot] - 1, slot);
+        return true; // successfully removed, data changed
+    }
+
+    /**
+     * This removes the element at an index by moving the last element into its place
+     *
+     * @param index - the index of the element in elements
+     * @param slot - the slot in the hash index that points at it
+     */
+    private void removeAt(int index, int slot) {
+        clearSlot(slot);
+
+        int last = size - 1;
+        if (index != last) {
+            // the last element takes the empty spot, so its slot has to point there now
+            slots[slotOf(last)] = index + 1;
+            elements[index] = elements[last];
         }
+        elements[last] = null;
+        this.size --;
+        modCount ++;
 
-        return false;
+        if ((this.size * 4) < this.elements.length && this.elements.length > DEFAULT_CAPACITY)
+            resize(false); // it is too large so we shrink back down (waiting for a quarter full so it does not bounce)
     }
 
     /**
@@ -231,25 +275,15 @@ public class ArraySet<E> extends AbstractSet<E> {
      */
     @Override
     public boolean retainAll(Collection<?> c) {
+        // checking a list over and over would be O(n*m), so anything that is not already a set gets hashed once
+        Collection<?> retained = c instanceof Set ? c : new HashSet<>(c);
         boolean changed = false;
 
-        for (int i = 0; i < elements.length; i++) {
-            E element = elements[i];
-            if (element == null) continue;
-            boolean isRetained = false;
-
-            // check if we want to keep it
-            for (Object o: c) {
-                if (o.equals(element)) {
-                    isRetained = true;
-                    break;
-                }
-            }
-
-            if (isRetained) continue; // skip if we are keeping it
-            this.remove(element);
+        // going backwards, so the last element that gets moved into a removed spot has already been checked
+        for (int i = size - 1; i >= 0; i--) {
+            if (retained.contains(elements[i])) continue; // skip if we are keeping it
+            removeAt(i, slotOf(i));
             changed = true;
-            i--; // so we dont skip anything
         }
 
         return changed;
@@ -275,26 +309,100 @@ public class ArraySet<E> extends AbstractSet<E> {
      */
     @Override
     public Iterator<E> iterator() {
-        return new ArraySetIterator<>(this);
+        return new ArraySetIterator();
     }
 
     /**
-     * This class represents the iterator for an arrayset
-     * @param <T> - the type of object in the iterator
+     * This finds the slot in the hash index for an object
+     *
+     * @param o - the object to look for
+     * @return the slot holding o, or if it is not in the set then ~(the empty slot where it would go)
      */
-    private static class ArraySetIterator<T> implements Iterator<T> {
+    private int findSlot(Object o) {
+        int mask = slots.length - 1;
+        for (int slot = hash(o, slots.length); ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) return ~slot;
+            if (o.equals(elements[entry - 1])) return slot;
+        }
+    }
 
-        private T[] items;
-        private int index;
+    /**
+     * This finds the slot that points at an index in elements
+     *
+     * @param index - an index of an element in the set
+     * @return the slot holding that index
+     */
+    private int slotOf(int index) {
+        int mask = slots.length - 1;
+        int slot = hash(elements[index], slots.length);
+        while (slots[slot] != index + 1) slot = (slot + 1) & mask;
+        return slot;
+    }
 
-        /**
-         * This is the constructor, it creates a new iterator object based on the utilities.ArraySet
-         * @param set - the set to create an iterator for
-         */
-        public ArraySetIterator(ArraySet<T> set) {
-            items = (T[]) set.toArray();
-            index = 0;
+    /**
+     * This empties a slot in the hash index, moving later slots back into it when they would not be found otherwise
+     * (linear probing stops at the first empty slot, so a gap cannot be left in the middle of a run)
+     *
+     * @param slot - the slot to empty
+     */
+    private void clearSlot(int slot) {
+        int mask = slots.length - 1;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (slots[next] == 0) break;
+            int home = hash(elements[slots[next] - 1], slots.length);
+            // the entry at next can move back if its home slot is not between the gap and next (going around)
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                slots[slot] = slots[next];
+                slot = next;
+            }
         }
+        slots[slot] = 0;
+    }
+
+    /**
+     * Gets the home slot of an object. Fibonacci hashing spreads out hash codes that only differ in their high bits
+     *
+     * @param o - the object
+     * @param slotCount - the number of slots, a power of 2
+     * @return the home slot
+     */
+    private static int hash(Object o, int slotCount) {
+        return (o.hashCode() * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(slotCount));
+    }
+
+    /**
+     * Gets the number of hash slots for a capacity, keeping the index at most half full
+     *
+     * @param capacity - the capacity of the elements array
+     * @return a power of 2 at least twice the capacity
+     */
+    private static int slotCount(int capacity) {
+        return Integer.highestOneBit(Math.max(1, capacity) * 2 - 1) * 2;
+    }
+
+    /**
+     * Creates an empty elements array. Generic arrays cannot be created directly, but it only ever holds E's
+     *
+     * @param capacity - the length of the array
+     * @return the new array
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int capacity) {
+        return (E[]) new Object[capacity];
+    }
+
+    /**
+     * This class represents the iterator for an arrayset. It walks the set itself rather than a copy,
+     * and removing through it is O(1) like any other removal
+     */
+    private class ArraySetIterator implements Iterator<E> {
+
+        private int index;
+        private boolean canRemove;
+        private int expectedModCount = modCount;
 
         /**
          * This checks if the iterator has another element
@@ -303,43 +411,42 @@ public class ArraySet<E> extends AbstractSet<E> {
          */
         @Override
         public boolean hasNext() {
-            return index < items.length;
+            return index < size;
         }
 
         /**
          * Gets the next element in the iterator, and moves onto the one after in preparation for the next call
          *
          * @return next element
+         * @throws NoSuchElementException if there are no more elements
          */
         @Override
-        public T next() {
-            if (! this.hasNext()) return null;
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (! this.hasNext()) throw new NoSuchElementException();
 
             this.index++;
-            return items[index - 1]; // we have to do -1 because we just did +1
+            canRemove = true;
+            return elements[index - 1]; // we have to do -1 because we just did +1
         }
 
         /**
-         * Removes from the underlying collection the last element returned by this iterator (optional operation)
+         * Removes from the underlying collection the last element returned by this iterator
          *
          * This method can be called only once per call to next()
-         * The behavior of an iterator is unspecified if the underlying collection is
-         * modified while the iteration is in progress in any way other than by calling this method
+         * The last element gets moved into the removed spot, so the iterator steps back one to still visit it
          *
-         * @throws IllegalStateException - if the remove operation is not supported by this iterator
-         * @throws UnsupportedOperationException - if the next method has not yet been called, or the remove method has already been called after the last call to the next method
+         * @throws IllegalStateException - if the next method has not yet been called, or the remove method has already been called after the last call to the next method
          */
         @Override
-        public void remove() throws IllegalStateException, UnsupportedOperationException {
-            if (index == 0) throw new IllegalStateException("Cannot remove before calling next");
-
-            T[] newItems = (T[]) new Object[items.length - index];
-            for (int i = 0; i < newItems.length; i++) { // copy older elements over
-                newItems[i] = this.items[i+index];
-            }
-
-            this.items = newItems;
-            index = 0;
+        public void remove() throws IllegalStateException {
+            if (!canRemove) throw new IllegalStateException("Cannot remove before calling next");
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+
+            index--;
+            removeAt(index, slotOf(index));
+            expectedModCount = modCount;
+            canRemove = false;
         }
     }
 
@@ -0,0 +1,88 @@
+package utilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * @author Bennett Brixen
+ * This is a tool that compiles a text dictionary into the binary format read by MappedDictionary.
+ * The words are packed, sorted and written with a checksum. The file is written next to the real one first
+ * and then moved over it, so a half written file is never left where the game would find it.
+ *
+ * Usage: DictionaryCompiler letters [text dictionary] [compiled dictionary]
+ */
+public class DictionaryCompiler {
+
+    /**
+     * This compiles the dictionary given on the command line
+     *
+     * @param args - the number of letters, then optionally the text and compiled filenames
+     * @throws IOException if either file could not be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        int letters = Integer.parseInt(args[0]);
+        String textFile = args.length > 1 ? args[1] : DictionaryRegistry.filename(letters);
+        Path compiledFile = Paths.get(args.length > 2 ? args[2] : compiledFilename(textFile));
+
+        WordDictionary dictionary = WordDictionary.load(textFile, letters);
+        compile(dictionary, compiledFile);
+        System.out.println("Compiled " + dictionary.size() + " words into " + compiledFile);
+    }
+
+    /**
+     * Gets the filename of the compiled version of a text dictionary
+     *
+     * @param textFile - the text dictionary, like Dictionaries/Dictionary5.txt
+     * @return the compiled filename, like Dictionaries/Dictionary5.dict
+     */
+    public static String compiledFilename(String textFile) {
+        int extension = textFile.lastIndexOf('.');
+        if (extension <= textFile.lastIndexOf('/')) extension = textFile.length();
+        return textFile.substring(0, extension) + ".dict";
+    }
+
+    /**
+     * This writes a list of words to a compiled dictionary file
+     *
+     * @param words - the words to compile
+     * @param file - the compiled dictionary file
+     * @throws IOException if the file could not be written
+     */
+    public static void compile(WordList words, Path file) throws IOException {
+        int letters = words.getLetters();
+        int wordBytes = MappedDictionary.wordBytes(letters);
+
+        long[] sorted = new long[words.size()];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = words.get(i);
+        Arrays.sort(sorted); // packed words sort alphabetically
+
+        ByteBuffer body = ByteBuffer.allocate(sorted.length * wordBytes);
+        for (long word : sorted)
+            for (int i = wordBytes - 1; i >= 0; i--) body.put((byte) (word >>> (8 * i)));
+        body.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(MappedDictionary.HEADER_SIZE);
+        header.putInt(MappedDictionary.MAGIC).putInt(MappedDictionary.VERSION).putInt(letters)
+                .putInt(sorted.length).putInt(wordBytes).putLong(crc.getValue());
+        header.clear(); // the rest of the header is padding
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) channel.write(header);
+            while (body.hasRemaining()) channel.write(body);
+            channel.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,159 @@
+package utilities;
+
+import java.util.Arrays;
+
+/**
+ * @author Bennett Brixen
+ * This class is an index over a WordList for quickly finding every word that fits the guesses so far.
+ *
+ * A set of words is a bitset (long[]) with one bit per dictionary index. The index holds a bitset for:
+ * 	every (position, letter) pair, the words with that letter at that position
+ * 	every (letter, count) pair, the words with at least that many of that letter
+ * The feedback from a guess then turns into a handful of AND / AND NOT operations on these bitsets:
+ * 	a CORRECT letter keeps only words with that letter there, anything else removes them
+ * 	the CORRECT and CORRECT_WRONG_INDEX copies of a letter give the minimum count of that letter,
+ * 	and an INCORRECT copy of that letter means the count is exactly that minimum
+ *
+ * Each of those is one pass over the whole bitset, up to three per letter of the guess, so filtering 7 letter words
+ * (17.5k words, 275 longs per bitset) reads about 5.7k longs. The passes are plain loops the JIT vectorizes,
+ * which makes that about 2 microseconds, and that has been faster than folding the bitsets together first.
+ */
+public class DictionaryIndex {
+
+    private final WordList dictionary;
+    private final int letters;
+    private final int bitsetLength;
+    private final long[][][] atPosition; // [position][letter] -> words with that letter at that position
+    private final long[][][] atLeast; // [letter][count - 1] -> words with at least count of that letter
+
+    /**
+     * This builds the index for every word in a dictionary
+     *
+     * @param dictionary - the dictionary to index
+     */
+    public DictionaryIndex(WordList dictionary) {
+        this.dictionary = dictionary;
+        this.letters = dictionary.getLetters();
+        this.bitsetLength = (dictionary.size() + 63) >>> 6;
+        this.atPosition = new long[letters][26][bitsetLength];
+        this.atLeast = new long[26][letters][bitsetLength];
+
+        int[] counts = new int[26];
+        for (int word = 0; word < dictionary.size(); word++) {
+            long packed = dictionary.get(word);
+            long bit = 1L << word;
+            for (int i = 0; i < letters; i++) {
+                int letter = WordDictionary.letterAt(packed, letters, i);
+                atPosition[i][letter][word >>> 6] |= bit;
+                atLeast[letter][counts[letter]][word >>> 6] |= bit; // the nth copy means at least n
+                counts[letter]++;
+            }
+            for (int i = 0; i < letters; i++) counts[WordDictionary.letterAt(packed, letters, i)] = 0;
+        }
+    }
+
+    /**
+     * Creates a bitset containing every word in the dictionary
+     *
+     * @return a new bitset with every word set
+     */
+    public long[] all() {
+        long[] bits = new long[bitsetLength];
+        Arrays.fill(bits, -1L);
+        int extra = bitsetLength * 64 - dictionary.size();
+        if (extra > 0) bits[bitsetLength - 1] >>>= extra; // clearing bits past the last word
+        return bits;
+    }
+
+    /**
+     * This removes every word from a bitset that would not have given this pattern for this guess
+     *
+     * @param candidates - the bitset to narrow down, it is changed in place
+     * @param guess - the packed guess
+     * @param pattern - the pattern the guess got, from PatternScorer
+     */
+    public void filter(long[] candidates, long guess, int pattern) {
+        for (int i = 0; i < letters; i++) {
+            int letter = WordDictionary.letterAt(guess, letters, i);
+            if (PatternScorer.digitAt(pattern, i) == PatternScorer.CORRECT)
+                and(candidates, atPosition[i][letter]);
+            else
+                andNot(candidates, atPosition[i][letter]);
+
+            if (firstIndexOf(guess, letter, i)) filterCount(candidates, guess, pattern, letter);
+        }
+    }
+
+    /**
+     * This applies the count rule for a single letter of the guess
+     */
+    private void filterCount(long[] candidates, long guess, int pattern, int letter) {
+        int marked = 0;
+        boolean incorrect = false;
+        for (int i = 0; i < letters; i++) {
+            if (WordDictionary.letterAt(guess, letters, i) != letter) continue;
+            if (PatternScorer.digitAt(pattern, i) == PatternScorer.INCORRECT) incorrect = true;
+            else marked++;
+        }
+
+        if (marked > 0) and(candidates, atLeast[letter][marked - 1]);
+        if (incorrect && marked < letters) andNot(candidates, atLeast[letter][marked]); // no more than marked
+    }
+
+    /**
+     * Checks if this is the first time a letter appears in the guess, so each letter's count is only applied once
+     */
+    private boolean firstIndexOf(long guess, int letter, int index) {
+        for (int i = 0; i < index; i++)
+            if (WordDictionary.letterAt(guess, letters, i) == letter) return false;
+        return true;
+    }
+
+    /**
+     * Counts the words in a bitset
+     *
+     * @param bits - the bitset
+     * @return the number of words set
+     */
+    public static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) count += Long.bitCount(word);
+        return count;
+    }
+
+    /**
+     * Lists the dictionary index of every word in a bitset
+     *
+     * @param bits - the bitset
+     * @return the index of every word set, in order
+     */
+    public static int[] toIndices(long[] bits) {
+        int[] indices = new int[count(bits)];
+        int next = 0;
+        for (int i = 0; i < bits.length; i++) {
+            long word = bits[i];
+            while (word != 0) {
+                indices[next++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1; // clearing the lowest bit
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Gets the dictionary this index was built from
+     *
+     * @return the dictionary
+     */
+    public WordList getDictionary() {
+        return dictionary;
+    }
+
+    private static void and(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) target[i] &= other[i];
+    }
+
+    private static void andNot(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) target[i] &= ~other[i];
+    }
+}
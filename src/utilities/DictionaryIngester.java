@@ -0,0 +1,289 @@
+package utilities;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Bennett Brixen
+ * This class reads a word list of any size into a WordDictionary, cleaning it up along the way.
+ *
+ * Word lists scraped off the internet come with junk in them (Dictionary5.txt starts with the header of the
+ * github page it was copied from), so every line is trimmed and checked:
+ * 	blank lines are dropped
+ * 	lines that are the wrong length are dropped
+ * 	lines with anything other than letters are dropped
+ * 	words are uppercased, and any word seen before is dropped as a duplicate
+ * A Report counts everything that was dropped and keeps a few examples of each.
+ *
+ * The file is streamed in chunks of lines. Each chunk is checked and packed on the fork join pool while the next
+ * chunks are being read, and only a few chunks are in flight at once, so the whole file is never in memory.
+ * The packed words are then added to the dictionary in file order, which keeps the word order the same
+ * as reading the file one line at a time.
+ *
+ * Usage: DictionaryIngester letters [word list] [cleaned word list]
+ */
+public class DictionaryIngester {
+
+    private static final int CHUNK_LINES = 4096;
+    private static final int MAX_SAMPLES = 5; // examples kept of each kind of dropped line
+
+    /**
+     * The reasons a line can be dropped
+     */
+    public enum Rejection {
+        BLANK, WRONG_LENGTH, NOT_ALPHABETIC, DUPLICATE
+    }
+
+    private DictionaryIngester() {} // only static methods
+
+    /**
+     * This cleans up the word list given on the command line and prints what was dropped
+     *
+     * @param args - the number of letters, then optionally the word list and where to write the cleaned list
+     * @throws IOException if either file could not be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        int letters = Integer.parseInt(args[0]);
+        Path input = Paths.get(args.length > 1 ? args[1] : DictionaryRegistry.filename(letters));
+
+        long start = System.nanoTime();
+        Result result = ingest(input, letters);
+        System.out.printf("%s in %.1fms%n", result.getReport(), (System.nanoTime() - start) / 1e6);
+
+        if (args.length > 2) {
+            try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(args[2]), StandardCharsets.UTF_8)) {
+                WordList words = result.getWords();
+                for (int i = 0; i < words.size(); i++) {
+                    writer.write(words.getWord(i).toLowerCase());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * This reads and cleans up a word list file
+     *
+     * @param file - the word list, one word per line
+     * @param letters - the number of letters every word must have
+     * @return the cleaned dictionary and a report of what was dropped
+     * @throws IOException if the file could not be read
+     */
+    public static Result ingest(Path file, int letters) throws IOException {
+        // decoding errors are replaced rather than thrown, those lines are then dropped as non alphabetic
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            return ingest(reader, letters);
+        }
+    }
+
+    /**
+     * This reads and cleans up a word list
+     *
+     * @param reader - the word list, one word per line
+     * @param letters - the number of letters every word must have
+     * @return the cleaned dictionary and a report of what was dropped
+     * @throws IOException if the word list could not be read
+     */
+    public static Result ingest(BufferedReader reader, int letters) throws IOException {
+        WordDictionary dictionary = new WordDictionary(letters);
+        Report report = new Report();
+        ArrayDeque<CompletableFuture<Chunk>> inFlight = new ArrayDeque<>();
+        int maxInFlight = 2 * ForkJoinPool.getCommonPoolParallelism() + 1;
+
+        long lineNumber = 1;
+        String[] lines = new String[CHUNK_LINES];
+        int count = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines[count++] = line;
+            if (count < CHUNK_LINES) continue;
+
+            String[] full = lines;
+            long firstLine = lineNumber;
+            inFlight.add(CompletableFuture.supplyAsync(() -> Chunk.sanitize(full, CHUNK_LINES, firstLine, letters)));
+            lineNumber += CHUNK_LINES;
+            lines = new String[CHUNK_LINES];
+            count = 0;
+
+            if (inFlight.size() >= maxInFlight) merge(inFlight.poll().join(), dictionary, report);
+        }
+        if (count > 0) inFlight.add(CompletableFuture.completedFuture(Chunk.sanitize(lines, count, lineNumber, letters)));
+
+        while (!inFlight.isEmpty()) merge(inFlight.poll().join(), dictionary, report);
+        return new Result(dictionary, report);
+    }
+
+    /**
+     * This adds a checked chunk to the dictionary, in order, and counts what it dropped
+     */
+    private static void merge(Chunk chunk, WordDictionary dictionary, Report report) {
+        report.lines += chunk.lines;
+        for (Rejection reason : Rejection.values()) {
+            report.rejected[reason.ordinal()] += chunk.rejected[reason.ordinal()];
+            for (String sample : chunk.samples.get(reason.ordinal())) report.sample(reason, sample);
+        }
+
+        for (int i = 0; i < chunk.count; i++) {
+            if (dictionary.add(chunk.words[i])) continue;
+            report.rejected[Rejection.DUPLICATE.ordinal()]++;
+            report.sample(Rejection.DUPLICATE, "line " + chunk.wordLines[i] + ": "
+                    + WordDictionary.decode(chunk.words[i], dictionary.getLetters()));
+        }
+    }
+
+    /**
+     * This class represents a chunk of lines after being checked and packed
+     */
+    private static class Chunk {
+
+        private final long[] words;
+        private final long[] wordLines; // the line number of each word, for reporting duplicates
+        private final int[] rejected = new int[Rejection.values().length];
+        private final List<List<String>> samples = new ArrayList<>();
+        private int count, lines;
+
+        /**
+         * @param capacity - the most words this chunk can hold
+         */
+        private Chunk(int capacity) {
+            this.words = new long[capacity];
+            this.wordLines = new long[capacity];
+            for (int i = 0; i < rejected.length; i++) samples.add(new ArrayList<>());
+        }
+
+        /**
+         * This checks and packs every line of a chunk
+         *
+         * @param lines - the lines
+         * @param count - how many of the lines are filled in
+         * @param firstLine - the line number of the first line
+         * @param letters - the number of letters every word must have
+         * @return the checked chunk
+         */
+        static Chunk sanitize(String[] lines, int count, long firstLine, int letters) {
+            Chunk chunk = new Chunk(count);
+            chunk.lines = count;
+            for (int i = 0; i < count; i++) {
+                String line = lines[i].strip();
+                long packed = WordDictionary.encode(line, letters);
+                Rejection reason = line.isEmpty() ? Rejection.BLANK
+                        : packed == WordDictionary.WRONG_LENGTH ? Rejection.WRONG_LENGTH
+                        : packed == WordDictionary.NOT_ALPHABETIC ? Rejection.NOT_ALPHABETIC : null;
+
+                if (reason == null) {
+                    chunk.wordLines[chunk.count] = firstLine + i;
+                    chunk.words[chunk.count++] = packed;
+                } else {
+                    chunk.rejected[reason.ordinal()]++;
+                    List<String> samples = chunk.samples.get(reason.ordinal());
+                    if (samples.size() < MAX_SAMPLES) samples.add("line " + (firstLine + i) + ": " + line);
+                }
+            }
+            return chunk;
+        }
+    }
+
+    /**
+     * This class represents what was dropped while ingesting a word list
+     */
+    public static class Report {
+
+        private final int[] rejected = new int[Rejection.values().length];
+        private final List<String> samples = new ArrayList<>();
+        private final int[] sampled = new int[Rejection.values().length];
+        private long lines;
+
+        /**
+         * Keeps an example of a dropped line, if we do not have enough of that kind yet
+         */
+        private void sample(Rejection reason, String line) {
+            if (sampled[reason.ordinal()] >= MAX_SAMPLES) return;
+            sampled[reason.ordinal()]++;
+            samples.add(reason + " " + line);
+        }
+
+        /**
+         * @return the number of lines read
+         */
+        public long getLines() {
+            return lines;
+        }
+
+        /**
+         * @param reason - the kind of dropped line
+         * @return the number of lines dropped for that reason
+         */
+        public int getRejected(Rejection reason) {
+            return rejected[reason.ordinal()];
+        }
+
+        /**
+         * @return a few examples of each kind of dropped line
+         */
+        public List<String> getSamples() {
+            return Collections.unmodifiableList(samples);
+        }
+
+        /**
+         * @return a summary like "5785 lines, 5757 words, dropped 2 BLANK, 25 WRONG_LENGTH, ..."
+         */
+        @Override
+        public String toString() {
+            long dropped = 0;
+            StringBuilder summary = new StringBuilder();
+            for (Rejection reason : Rejection.values()) {
+                dropped += rejected[reason.ordinal()];
+                if (summary.length() > 0) summary.append(", ");
+                summary.append(rejected[reason.ordinal()]).append(' ').append(reason);
+            }
+            summary.insert(0, lines + " lines, " + (lines - dropped) + " words, dropped ");
+            for (String sample : samples) summary.append("\n  ").append(sample);
+            return summary.toString();
+        }
+    }
+
+    /**
+     * This class represents the cleaned dictionary along with the report of what was dropped
+     */
+    public static class Result {
+
+        private final WordDictionary words;
+        private final Report report;
+
+        /**
+         * @param words - the cleaned dictionary
+         * @param report - what was dropped
+         */
+        private Result(WordDictionary words, Report report) {
+            this.words = words;
+            this.report = report;
+        }
+
+        /**
+         * @return the cleaned dictionary
+         */
+        public WordDictionary getWords() {
+            return words;
+        }
+
+        /**
+         * @return what was dropped
+         */
+        public Report getReport() {
+            return report;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package utilities;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author Bennett Brixen
+ * This class holds every dictionary that has been loaded, so each file is only read once no matter how many
+ * games are started. Every game with the same dictionary shares the same Entry, which never changes after
+ * it is loaded, so it is safe to use from any thread.
+ *
+ * If two threads ask for the same dictionary at the same time, one of them loads it and the other waits for it.
+ * If loading fails, the failure is not remembered so the next request tries again.
+ *
+ * If a dictionary has been compiled by DictionaryCompiler (and the text file has not changed since),
+ * the compiled file is memory mapped instead of reading the text file, unless it turns out to be corrupted.
+ * If its PatternMatrix has been built by PatternMatrixBuilder (from these exact words), that is mapped too.
+ */
+public final class DictionaryRegistry {
+
+    private static final ConcurrentHashMap<String, CompletableFuture<Entry>> DICTIONARIES = new ConcurrentHashMap<>();
+
+    private DictionaryRegistry() {} // only static methods
+
+    /**
+     * Gets the filename of the default dictionary for a word length
+     *
+     * @param letters - the number of letters in each word
+     * @return the dictionary filename, like Dictionaries/Dictionary5.txt
+     */
+    public static String filename(int letters) {
+        return "Dictionaries/Dictionary" + letters + ".txt";
+    }
+
+    /**
+     * Gets the default dictionary for a word length, loading it if this is the first time it is needed
+     *
+     * @param letters - the number of letters in each word
+     * @return the shared dictionary
+     * @throws IOException if the dictionary could not be read
+     */
+    public static Entry get(int letters) throws IOException {
+        return get(filename(letters), letters);
+    }
+
+    /**
+     * Gets the default dictionary for a word length on a background thread, for loading it before it is needed
+     *
+     * @param letters - the number of letters in each word
+     * @return the shared dictionary, once it is loaded
+     */
+    public static CompletableFuture<Entry> getAsync(int letters) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return get(letters);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Gets a dictionary, loading it if this is the first time it is needed
+     *
+     * @param filename - the dictionary file
+     * @param letters - the number of letters in each word
+     * @return the shared dictionary
+     * @throws IOException if the dictionary could not be read
+     */
+    public static Entry get(String filename, int letters) throws IOException {
+        CompletableFuture<Entry> loading = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = DICTIONARIES.putIfAbsent(filename, loading);
+        if (existing == null) { // we are the first, so we do the loading
+            existing = loading;
+            try {
+                WordList words = load(filename, letters);
+                loading.complete(new Entry(words, openMatrix(filename, words)));
+            } catch (IOException | RuntimeException e) {
+                DICTIONARIES.remove(filename, loading);
+                loading.completeExceptionally(e);
+            }
+        }
+
+        try {
+            Entry entry = existing.join();
+            if (entry.getWords().getLetters() != letters)
+                throw new IllegalArgumentException(filename + " was loaded for " + entry.getWords().getLetters() + " letters");
+            return entry;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw e;
+        }
+    }
+
+    /**
+     * This loads a dictionary, preferring the compiled version when there is an up to date one.
+     * If the compiled file is corrupted or for another word length, the text file is read instead
+     *
+     * @param filename - the text dictionary file
+     * @param letters - the number of letters in each word
+     * @return the loaded words
+     * @throws IOException if the dictionary could not be read
+     */
+    private static WordList load(String filename, int letters) throws IOException {
+        FlightEvents.DictionaryLoad event = FlightEvents.isRecording() ? new FlightEvents.DictionaryLoad() : null;
+        if (event != null) event.begin();
+
+        Path text = Paths.get(filename);
+        Path compiled = Paths.get(DictionaryCompiler.compiledFilename(filename));
+        WordList words = null;
+        Path read = text;
+        if (Files.exists(compiled) && (!Files.exists(text)
+                || Files.getLastModifiedTime(compiled).compareTo(Files.getLastModifiedTime(text)) >= 0)) {
+            try {
+                MappedDictionary dictionary = MappedDictionary.open(compiled);
+                if (dictionary.getLetters() == letters) {
+                    words = dictionary;
+                    read = compiled;
+                }
+            } catch (IOException e) {
+                // the text file has the same words, so a broken compiled file should never stop a game
+                System.err.println("Reading " + filename + " instead: " + e.getMessage());
+            }
+        }
+        if (words == null) words = WordDictionary.load(filename, letters);
+
+        if (event != null && event.shouldCommit()) {
+            event.file = read.toString();
+            event.compiled = read == compiled;
+            event.letters = letters;
+            event.wordCount = words.size();
+            event.bytesRead = Files.size(read);
+            event.commit();
+        }
+        return words;
+    }
+
+    /**
+     * This maps the pattern matrix of a dictionary, if it has one that is finished and matches its words
+     *
+     * @param filename - the text dictionary file
+     * @param words - the loaded words, which the matrix has to have been built from
+     * @return the matrix, or null if there is no usable one (hints then score their patterns directly)
+     */
+    private static PatternMatrix openMatrix(String filename, WordList words) {
+        Path file = Paths.get(PatternMatrix.filename(filename));
+        if (!Files.exists(file)) return null;
+        try {
+            return PatternMatrix.open(file, words);
+        } catch (IOException e) {
+            return null; // unfinished or built from an older dictionary, running the builder again fixes it
+        }
+    }
+
+    /**
+     * This class represents a loaded dictionary along with the index used to track remaining words,
+     * and the precomputed patterns if there are any
+     */
+    public static final class Entry {
+
+        private final WordList words;
+        private final DictionaryIndex index;
+        private final PatternMatrix matrix;
+
+        /**
+         * @param words - the loaded dictionary
+         * @param matrix - the pattern matrix of these words, or null if there is none
+         */
+        Entry(WordList words, PatternMatrix matrix) {
+            this.words = words;
+            this.index = new DictionaryIndex(words);
+            this.matrix = matrix;
+        }
+
+        /**
+         * @return every word in the dictionary
+         */
+        public WordList getWords() {
+            return words;
+        }
+
+        /**
+         * @return the index over this dictionary
+         */
+        public DictionaryIndex getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the precomputed patterns of this dictionary, or null if they have not been built
+         */
+        public PatternMatrix getPatternMatrix() {
+            return matrix;
+        }
+
+        /**
+         * This picks a random word from the dictionary
+         *
+         * @return a random uppercase word
+         */
+        public String randomWord() {
+            return words.getWord(ThreadLocalRandom.current().nextInt(words.size()));
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package utilities;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * @author Bennett Brixen
+ * This class counts what the game engine does and how long it takes, for watching a running game with JConsole
+ * or any other JMX client. There is one for the whole program, INSTANCE, which records games made with it:
+ * 	loading the dictionary when a controller picks its answer
+ * 	validating guesses, with the rejected ones split up by the reason they were rejected
+ * 	handling guesses in the model
+ * 	publishing GameEvents to the views, and how many were dropped because a view fell behind
+ * 	games started, won and lost
+ *
+ * The text and gui views and SessionManager give it to their controllers. Simulations and scripted games do not,
+ * so the numbers are about people playing rather than bots.
+ *
+ * Recording is a LongAdder increment or a LatencyHistogram record, so it never takes a lock or allocates
+ * once the counters have warmed up. It only shows up in JMX after register is called, which only the program's
+ * front end does, never the library classes. Starting the platform MBean server takes a few hundred milliseconds,
+ * so Wordle only does it in the background with -jmx.
+ */
+public final class EngineMetrics implements EngineMetricsMXBean {
+
+    public static final String NAME = "wordle:type=Engine";
+    public static final EngineMetrics INSTANCE = new EngineMetrics();
+
+    /**
+     * This represents the reason a guess was not accepted
+     */
+    public enum Rejection { WRONG_LENGTH, NOT_ALPHABETIC, NOT_IN_DICTIONARY, HARD_MODE }
+
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesWon = new LongAdder();
+    private final LongAdder gamesLost = new LongAdder();
+    private final LongAdder guessesAccepted = new LongAdder();
+    private final LongAdder[] rejected = new LongAdder[Rejection.values().length];
+    private final LongAdder eventsPublished = new LongAdder();
+    private final LongAdder eventsDropped = new LongAdder();
+    private final LatencyHistogram dictionaryLoad = new LatencyHistogram();
+    private final LatencyHistogram validGuess = new LatencyHistogram();
+    private final LatencyHistogram handleGuess = new LatencyHistogram();
+    private final LatencyHistogram publish = new LatencyHistogram();
+    private boolean registered;
+
+    private EngineMetrics() {
+        for (int i = 0; i < rejected.length; i++) rejected[i] = new LongAdder();
+    }
+
+    /**
+     * This registers the metrics with the platform MBean server so JMX clients can see them.
+     * Registering more than once does nothing, and if it fails the metrics keep recording without JMX.
+     */
+    public static synchronized void register() {
+        if (INSTANCE.registered) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(NAME));
+            INSTANCE.registered = true;
+        } catch (JMException e) {
+            System.err.println("Could not register the engine metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param nanos - how long it took a controller to get its dictionary, which is quick once it is loaded
+     */
+    public void dictionaryLoaded(long nanos) {
+        dictionaryLoad.record(nanos);
+    }
+
+    /**
+     * @param nanos - how long it took to validate a guess that was accepted
+     */
+    public void guessAccepted(long nanos) {
+        guessesAccepted.increment();
+        validGuess.record(nanos);
+    }
+
+    /**
+     * @param reason - why the guess was rejected
+     * @param nanos - how long it took to validate it
+     */
+    public void guessRejected(Rejection reason, long nanos) {
+        rejected[reason.ordinal()].increment();
+        validGuess.record(nanos);
+    }
+
+    /**
+     * @param nanos - how long the model took to handle a guess
+     */
+    public void guessHandled(long nanos) {
+        handleGuess.record(nanos);
+    }
+
+    /**
+     * @param nanos - how long it took to offer an event to the subscribers
+     * @param dropped - true if a subscriber's buffer was full so it missed the event
+     */
+    public void eventPublished(long nanos, boolean dropped) {
+        eventsPublished.increment();
+        if (dropped) eventsDropped.increment();
+        publish.record(nanos);
+    }
+
+    public void gameStarted() {
+        gamesStarted.increment();
+    }
+
+    /**
+     * @param won - true if the answer was guessed
+     */
+    public void gameFinished(boolean won) {
+        (won ? gamesWon : gamesLost).increment();
+    }
+
+    @Override
+    public long getGamesStarted() {
+        return gamesStarted.sum();
+    }
+
+    @Override
+    public long getGamesWon() {
+        return gamesWon.sum();
+    }
+
+    @Override
+    public long getGamesLost() {
+        return gamesLost.sum();
+    }
+
+    @Override
+    public long getGuessesAccepted() {
+        return guessesAccepted.sum();
+    }
+
+    @Override
+    public long getRejectedWrongLength() {
+        return rejected[Rejection.WRONG_LENGTH.ordinal()].sum();
+    }
+
+    @Override
+    public long getRejectedNotAlphabetic() {
+        return rejected[Rejection.NOT_ALPHABETIC.ordinal()].sum();
+    }
+
+    @Override
+    public long getRejectedNotInDictionary() {
+        return rejected[Rejection.NOT_IN_DICTIONARY.ordinal()].sum();
+    }
+
+    @Override
+    public long getRejectedHardMode() {
+        return rejected[Rejection.HARD_MODE.ordinal()].sum();
+    }
+
+    @Override
+    public long getEventsPublished() {
+        return eventsPublished.sum();
+    }
+
+    @Override
+    public long getEventsDropped() {
+        return eventsDropped.sum();
+    }
+
+    @Override
+    public LatencyHistogram.Summary getDictionaryLoadLatency() {
+        return dictionaryLoad.summary();
+    }
+
+    @Override
+    public LatencyHistogram.Summary getValidGuessLatency() {
+        return validGuess.summary();
+    }
+
+    @Override
+    public LatencyHistogram.Summary getHandleGuessLatency() {
+        return handleGuess.summary();
+    }
+
+    @Override
+    public LatencyHistogram.Summary getPublishLatency() {
+        return publish.summary();
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder counter : new LongAdder[] {gamesStarted, gamesWon, gamesLost, guessesAccepted,
+                eventsPublished, eventsDropped}) counter.reset();
+        for (LongAdder counter : rejected) counter.reset();
+        dictionaryLoad.reset();
+        validGuess.reset();
+        handleGuess.reset();
+        publish.reset();
+    }
+}
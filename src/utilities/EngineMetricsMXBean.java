@@ -0,0 +1,42 @@
+package utilities;
+
+/**
+ * @author Bennett Brixen
+ * This is what EngineMetrics shows to JMX clients like JConsole, under the name in EngineMetrics.NAME.
+ * Every latency is a LatencyHistogram.Summary, which JMX clients show as a group of numbers.
+ */
+public interface EngineMetricsMXBean {
+
+    long getGamesStarted();
+
+    long getGamesWon();
+
+    long getGamesLost();
+
+    long getGuessesAccepted();
+
+    long getRejectedWrongLength();
+
+    long getRejectedNotAlphabetic();
+
+    long getRejectedNotInDictionary();
+
+    long getRejectedHardMode();
+
+    long getEventsPublished();
+
+    long getEventsDropped();
+
+    LatencyHistogram.Summary getDictionaryLoadLatency();
+
+    LatencyHistogram.Summary getValidGuessLatency();
+
+    LatencyHistogram.Summary getHandleGuessLatency();
+
+    LatencyHistogram.Summary getPublishLatency();
+
+    /**
+     * This sets every counter and histogram back to 0
+     */
+    void reset();
+}
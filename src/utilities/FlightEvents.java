@@ -0,0 +1,128 @@
+package utilities;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * @author Bennett Brixen
+ * These are the Java Flight Recorder events for the life of a guess, so a recording taken under load can line up
+ * the game's own work with garbage collection, allocation and everything else JFR records.
+ *
+ * Every event is off unless a recording turns it on, which wordle.jfc (next to the Dictionaries folder) does:
+ * 	java -XX:StartFlightRecording:settings=wordle.jfc,filename=wordle.jfr ...
+ * Loading the first event class starts up Flight Recorder, which takes a few hundred milliseconds, so the game only
+ * creates events once Flight Recorder is running (see isRecording). That happens when a recording is started on the
+ * command line or later with jcmd. Until then each event costs one volatile read. Fields are only filled in after
+ * shouldCommit, and none of them record stack traces by default.
+ */
+public final class FlightEvents {
+
+    private FlightEvents() {} // only event classes
+
+    /**
+     * Checks if Flight Recorder has been started, so creating events is worth it
+     *
+     * @return true if there is or has been a recording in this program
+     */
+    public static boolean isRecording() {
+        return FlightRecorder.isInitialized();
+    }
+
+    @Name("wordle.MakeGuess")
+    @Label("Make Guess")
+    @Description("A guess made through WordleController, including validating it")
+    @Category({"Wordle", "Guess"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class MakeGuess extends Event {
+        @Label("Game Id")
+        public long gameId;
+        @Label("Guess")
+        public String guess;
+        @Label("Accepted")
+        public boolean accepted;
+        @Label("Outcome")
+        @Description("Accepted, or why the guess was rejected")
+        public String outcome;
+    }
+
+    @Name("wordle.HandleGuess")
+    @Label("Handle Guess")
+    @Description("A valid guess being scored by WordleModel")
+    @Category({"Wordle", "Guess"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class HandleGuess extends Event {
+        @Label("Game Id")
+        public long gameId;
+        @Label("Letters")
+        public int letters;
+        @Label("Pattern")
+        @Description("The pattern from PatternScorer, a base 3 digit for each letter")
+        public int pattern;
+        @Label("Row")
+        public int row;
+        @Label("Remaining Words")
+        public int remaining;
+    }
+
+    @Name("wordle.DictionaryLoad")
+    @Label("Dictionary Load")
+    @Description("A dictionary being read the first time it is needed")
+    @Category({"Wordle", "Dictionary"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class DictionaryLoad extends Event {
+        @Label("File")
+        public String file;
+        @Label("Compiled")
+        @Description("True if the compiled dictionary was mapped instead of reading the text file")
+        public boolean compiled;
+        @Label("Letters")
+        public int letters;
+        @Label("Word Count")
+        public int wordCount;
+        @Label("Bytes Read")
+        @DataAmount
+        public long bytesRead;
+    }
+
+    @Name("wordle.GameStart")
+    @Label("Game Start")
+    @Category({"Wordle", "Game"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class GameStart extends Event {
+        @Label("Game Id")
+        public long gameId;
+        @Label("Letters")
+        public int letters;
+        @Label("Max Guesses")
+        public int maxGuesses;
+    }
+
+    @Name("wordle.GameEnd")
+    @Label("Game End")
+    @Category({"Wordle", "Game"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class GameEnd extends Event {
+        @Label("Game Id")
+        public long gameId;
+        @Label("Won")
+        public boolean won;
+        @Label("Guesses")
+        public int guesses;
+        @Label("Game Length")
+        @Timespan(Timespan.MILLISECONDS)
+        public long gameMillis;
+    }
+}
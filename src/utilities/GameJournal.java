@@ -0,0 +1,479 @@
+package utilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * @author Bennett Brixen
+ * This is an append only journal of finished games, read back with GameJournalReader.
+ *
+ * The journal is a directory of segment files, each one memory mapped while it is written, so adding a game is
+ * just copying a few bytes into memory. Every segment starts with a SEGMENT_HEADER byte header:
+ * 	magic, version, first segment, last segment, sealed, bytes used
+ * followed by records, each one starting on a 4 byte boundary:
+ * 	length, CRC32 of the rest, game id, start time, duration, letters, guess count, flags,
+ * 	then the packed answer, and every packed guess followed by its pattern
+ * Words take the same number of bytes as in a compiled dictionary, and patterns take as few bytes as fit.
+ *
+ * The length of a record is written last, so a record only exists once all of it is in the segment. If the program
+ * crashes partway through a game, the segment is read up to the game before it, and the next time the journal is
+ * opened that segment is sealed at the same place. A new segment's header is forced to disk before any game goes in
+ * it. If the machine goes down before that, the segment is skipped by the reader, and the next open writes the
+ * header back from the file name.
+ *
+ * A segment is sealed when the next game does not fit, or when the journal is opened again after a run. Sealing
+ * checks every record once and writes how many bytes of them there are into the header, so after that the header
+ * is trusted. Sealed segments are compacted on a background thread: neighbouring segments that fit in one (or a
+ * single segment with space left at the end) are copied into a single file exactly as long as its records, written
+ * next to the first one and then moved over it. The header of a compacted segment says which segments it holds,
+ * so if the program stops before the old ones are deleted they are skipped by the reader and deleted the next
+ * time the journal is opened.
+ *
+ * Only one GameJournal can have a directory open at once, since two would write the same segments. Opening one
+ * locks LOCK_FILE in the directory, which stops other programs, and this program keeps its own set of open
+ * directories, since the lock does not stop another channel in the same program (and closing that channel would
+ * let go of the lock). Adding games is synchronized, so games on any thread can share one journal.
+ */
+public class GameJournal implements AutoCloseable {
+
+    public static final String DEFAULT_DIRECTORY = "Journal";
+    public static final int DEFAULT_SEGMENT_SIZE = 8 << 20;
+    public static final int MAX_GUESSES = 255;
+
+    static final int MAGIC = 0x574A524E; // "WJRN"
+    static final int VERSION = 1;
+    static final String EXTENSION = ".journal";
+    static final String LOCK_FILE = "journal.lock";
+    static final int SEGMENT_HEADER = 32;
+    static final int SEALED_AT = 24, USED_AT = 28; // where the sealed flag and bytes used are in the header
+    static final int RECORD_HEADER = 8; // the length and checksum
+    static final int WON = 1; // flag for games that were won
+    private static final int PREALLOCATE_CHUNK = 64 << 10; // bytes of zeros written at a time to fill a new segment
+    private static final Set<Path> OPEN_DIRECTORIES = ConcurrentHashMap.newKeySet(); // real paths, in this program
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean background; // false only in tests, which compact when they choose to
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CRC32 crc = new CRC32();
+
+    private Path lockedDirectory; // the real path in OPEN_DIRECTORIES
+    private FileChannel lock;
+
+    private long sequence; // the number of the segment being written
+    private MappedByteBuffer segment;
+    private int position;
+    private boolean failed;
+
+    private GameJournal(Path directory, int segmentSize, boolean background) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.background = background;
+    }
+
+    /**
+     * This opens a journal with the default segment size, creating the directory if it does not exist
+     *
+     * @param directory - the journal directory
+     * @return the journal, ready for games to be added
+     * @throws IOException if the directory could not be read, is already open, or a segment could not be created
+     */
+    public static GameJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * This opens a journal, creating the directory if it does not exist. Whatever the last run left behind is
+     * cleaned up: leftovers from compaction are deleted and the segment it was writing is sealed.
+     *
+     * @param directory - the journal directory
+     * @param segmentSize - the size of each segment in bytes
+     * @return the journal, ready for games to be added
+     * @throws IOException if the directory could not be read, is already open, or a segment could not be created
+     */
+    public static GameJournal open(Path directory, int segmentSize) throws IOException {
+        return open(directory, segmentSize, true);
+    }
+
+    /**
+     * This opens a journal, only compacting it in the background if asked to
+     */
+    static GameJournal open(Path directory, int segmentSize, boolean background) throws IOException {
+        if (segmentSize < SEGMENT_HEADER + recordSize(WordDictionary.MAX_LENGTH, MAX_GUESSES))
+            throw new IllegalArgumentException("Segments must be big enough for the biggest game");
+
+        Files.createDirectories(directory);
+        GameJournal journal = new GameJournal(directory, segmentSize, background);
+        journal.lock(); // before anything is cleaned up, which would pull segments out from under another journal
+        try {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".tmp")) Files.delete(file);
+                    else if (name.endsWith(EXTENSION)) repairHeader(file);
+                }
+            }
+            for (GameJournalReader.Segment covered : GameJournalReader.coveredSegments(directory))
+                Files.delete(covered.file);
+
+            List<GameJournalReader.Segment> segments = GameJournalReader.segments(directory);
+            for (GameJournalReader.Segment segment : segments)
+                if (!segment.sealed) seal(GameJournalReader.map(segment.file, FileChannel.MapMode.READ_WRITE));
+
+            journal.sequence = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).last;
+            journal.startSegment();
+        } catch (IOException | RuntimeException e) {
+            journal.unlock();
+            throw e;
+        }
+        journal.compactLater();
+        return journal;
+    }
+
+    /**
+     * This adds a finished game to the journal. If the journal cannot be written to, the error is printed once
+     * and every game after that is dropped, so a full disk does not stop anyone from playing. Segments are filled
+     * in on disk before they are mapped, so running out of space shows up when one is started.
+     * Games with more than MAX_GUESSES guesses are not written.
+     *
+     * @param gameId - the id of the game
+     * @param startMillis - when the game started
+     * @param endMillis - when the game ended
+     * @param letters - the number of letters in each word
+     * @param answer - the packed answer (see WordDictionary)
+     * @param won - true if the game was won
+     * @param guessCount - the number of guesses
+     * @param guesses - the packed guesses
+     * @param patterns - the pattern of each guess (see PatternScorer)
+     */
+    public synchronized void append(long gameId, long startMillis, long endMillis, int letters, long answer,
+                                    boolean won, int guessCount, long[] guesses, int[] patterns) {
+        if (failed || segment == null || guessCount > MAX_GUESSES) return;
+
+        int size = recordSize(letters, guessCount);
+        try {
+            if (position + size > segmentSize) {
+                seal(segment);
+                startSegment();
+                compactLater();
+            }
+        } catch (IOException e) {
+            failed = true;
+            System.err.println("Could not write to the game journal: " + e.getMessage());
+            return;
+        }
+
+        int wordBytes = MappedDictionary.wordBytes(letters);
+        int patternBytes = patternBytes(letters);
+        int body = position + RECORD_HEADER;
+        int at = body;
+        try {
+            segment.putLong(at, gameId);
+            segment.putLong(at + 8, startMillis);
+            segment.putInt(at + 16, (int) Math.min(Math.max(endMillis - startMillis, 0), 0xFFFFFFFFL));
+            segment.put(at + 20, (byte) letters);
+            segment.put(at + 21, (byte) guessCount);
+            segment.put(at + 22, (byte) (won ? WON : 0));
+            at += 23;
+            at = putBytes(at, answer, wordBytes);
+            for (int i = 0; i < guessCount; i++) {
+                at = putBytes(at, guesses[i], wordBytes);
+                at = putBytes(at, patterns[i], patternBytes);
+            }
+
+            crc.reset();
+            crc.update(segment.duplicate().position(body).limit(at));
+            segment.putInt(position + 4, (int) crc.getValue());
+            segment.putInt(position, at - body); // this commits the record
+        } catch (InternalError e) {
+            // writing to a mapping whose pages the disk could not back, which startSegment should have prevented
+            failed = true;
+            System.err.println("Could not write to the game journal: " + e.getMessage());
+            return;
+        }
+        position = align(at);
+    }
+
+    /**
+     * This writes everything added so far to disk and stops compaction. Games added after this are dropped
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (segment != null) segment.force();
+            segment = null;
+        }
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        unlock();
+    }
+
+    /**
+     * This lets go of the directory without writing anything else to disk, like a program that crashed
+     */
+    void abandon() {
+        synchronized (this) {
+            segment = null;
+        }
+        compactor.shutdownNow();
+        unlock();
+    }
+
+    /**
+     * This takes the directory for this journal, first from this program and then from any other
+     *
+     * @throws IOException if another journal has it open, or the lock file could not be opened
+     */
+    private void lock() throws IOException {
+        Path realDirectory = directory.toRealPath();
+        if (!OPEN_DIRECTORIES.add(realDirectory))
+            throw new IOException(directory + " is already open in this program");
+        try {
+            FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+            FileLock taken;
+            try {
+                taken = channel.tryLock();
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            if (taken == null) {
+                channel.close(); // this program has no other channel on it, so that does not let go of any lock
+                throw new IOException(directory + " is already open in another program");
+            }
+            lock = channel;
+            lockedDirectory = realDirectory;
+        } catch (IOException e) {
+            OPEN_DIRECTORIES.remove(realDirectory);
+            throw e;
+        }
+    }
+
+    /**
+     * This gives the directory back, once. Closing the lock file's channel releases its lock
+     */
+    private synchronized void unlock() {
+        if (lock == null) return;
+        try {
+            lock.close();
+        } catch (IOException e) {
+            System.err.println("Could not unlock the game journal: " + e.getMessage());
+        }
+        lock = null;
+        OPEN_DIRECTORIES.remove(lockedDirectory);
+    }
+
+    /**
+     * This creates the next segment and maps it. The whole file is written out first, since a mapping past the end
+     * of what the disk has room for fails with an InternalError on the first write instead of an IOException here
+     *
+     * @throws IOException if it could not be created, for example because the disk is full
+     */
+    private void startSegment() throws IOException {
+        sequence++;
+        Path file = directory.resolve(filename(sequence));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try (channel) {
+            ByteBuffer zeros = ByteBuffer.allocate(PREALLOCATE_CHUNK);
+            for (long at = 0; at < segmentSize; ) {
+                zeros.clear().limit((int) Math.min(PREALLOCATE_CHUNK, segmentSize - at));
+                at += channel.write(zeros, at);
+            }
+            ByteBuffer header = header(sequence, sequence, false, 0);
+            while (header.hasRemaining()) channel.write(header, header.position());
+            channel.force(true); // the header has to be on disk before any game is, or the segment cannot be read
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(file); // so the next run does not find a segment with no header
+            } catch (IOException deleting) {
+                e.addSuppressed(deleting);
+            }
+            throw e;
+        }
+        position = SEGMENT_HEADER;
+    }
+
+    /**
+     * This seals a segment after its last complete record, so it is never written to again
+     *
+     * @param segment - the mapped segment
+     */
+    private static void seal(MappedByteBuffer segment) {
+        int end = GameJournalReader.validEnd(segment);
+        segment.putInt(USED_AT, end - SEGMENT_HEADER);
+        segment.putInt(SEALED_AT, 1);
+        segment.force();
+    }
+
+    private void compactLater() {
+        if (background) compactor.execute(this::compact);
+    }
+
+    /**
+     * This merges neighbouring sealed segments that fit into one segment. It runs on the compactor thread, and never
+     * touches the segment being written since it is not sealed. Only the headers are read to plan it, since
+     * sealed segments were checked when they were sealed.
+     */
+    void compact() {
+        try {
+            List<GameJournalReader.Segment> group = new ArrayList<>();
+            long used = 0;
+            for (GameJournalReader.Segment segment : GameJournalReader.segments(directory)) {
+                if (!segment.sealed) break;
+                long size = segment.used;
+                if (used + size > segmentSize - SEGMENT_HEADER) {
+                    merge(group, used);
+                    group.clear();
+                    used = 0;
+                }
+                group.add(segment);
+                used += size;
+            }
+            merge(group, used);
+        } catch (IOException e) {
+            System.err.println("Could not compact the game journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * This copies the records of some segments into one compacted segment, then deletes the old ones.
+     * A segment on its own is only copied if it has space at the end, which leaves it exactly as long as its records
+     *
+     * @param group - neighbouring sealed segments, oldest first
+     * @param used - the bytes of records in all of them
+     * @throws IOException if a segment could not be read, written or deleted
+     */
+    private void merge(List<GameJournalReader.Segment> group, long used) throws IOException {
+        if (group.isEmpty()) return;
+        GameJournalReader.Segment first = group.get(0);
+        if (group.size() == 1 && Files.size(first.file) == SEGMENT_HEADER + used) return;
+
+        GameJournalReader.Segment last = group.get(group.size() - 1);
+        ByteBuffer header = header(first.first, last.last, true, (int) used);
+
+        Path temporary = first.file.resolveSibling(first.file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(header);
+            for (GameJournalReader.Segment segment : group) {
+                try (FileChannel from = FileChannel.open(segment.file, StandardOpenOption.READ)) {
+                    for (long copied = 0, moved; copied < segment.used; copied += moved) {
+                        moved = from.transferTo(SEGMENT_HEADER + copied, segment.used - copied, channel);
+                        if (moved == 0) throw new IOException(segment.file + " is shorter than its header says");
+                    }
+                }
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, first.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (GameJournalReader.Segment segment : group.subList(1, group.size())) Files.delete(segment.file);
+    }
+
+    /**
+     * This gives a segment back its header if the machine went down before the header reached the disk.
+     * Only a segment being written can lose it, since compacted ones are forced before they are moved into place.
+     * Its records are checked like any other unsealed segment's when it is sealed
+     *
+     * @param file - a segment file
+     * @throws IOException if it could not be read or written
+     */
+    private static void repairHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer existing = ByteBuffer.allocate(SEGMENT_HEADER);
+            channel.read(existing, 0);
+            if (!GameJournalReader.isBlank(existing.flip())) return;
+
+            String name = file.getFileName().toString();
+            long sequence;
+            try {
+                sequence = Long.parseLong(name.substring(0, name.length() - EXTENSION.length()));
+            } catch (NumberFormatException e) {
+                return; // not a name this class gives segments, so it is left alone (the reader skips it)
+            }
+            ByteBuffer header = header(sequence, sequence, false, 0);
+            while (header.hasRemaining()) channel.write(header, header.position());
+            channel.force(true);
+            System.err.println("Gave " + file + " back its header after a crash");
+        }
+    }
+
+    /**
+     * This makes a segment header
+     *
+     * @param first - the first segment it holds
+     * @param last - the last segment it holds
+     * @param sealed - true if no more games will be added to it
+     * @param used - the bytes of records, if it is sealed
+     * @return the header, ready to be written
+     */
+    private static ByteBuffer header(long first, long last, boolean sealed, int used) {
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER);
+        header.putInt(MAGIC).putInt(VERSION).putLong(first).putLong(last).putInt(sealed ? 1 : 0).putInt(used);
+        return header.flip();
+    }
+
+    private int putBytes(int at, long value, int bytes) {
+        for (int i = bytes - 1; i >= 0; i--) segment.put(at++, (byte) (value >>> (8 * i)));
+        return at;
+    }
+
+    /**
+     * Gets the number of bytes needed to store one pattern
+     *
+     * @param letters - the number of letters in each word
+     * @return the bytes per pattern
+     */
+    static int patternBytes(int letters) {
+        int bits = 64 - Long.numberOfLeadingZeros(PatternScorer.winningPattern(letters));
+        return (bits + 7) / 8;
+    }
+
+    /**
+     * Gets the most bytes one game can take up in a segment
+     *
+     * @param letters - the number of letters in each word
+     * @param guessCount - the number of guesses
+     * @return the size of the record, including its header and padding
+     */
+    static int recordSize(int letters, int guessCount) {
+        int wordBytes = MappedDictionary.wordBytes(letters);
+        return align(RECORD_HEADER + 23 + wordBytes + guessCount * (wordBytes + patternBytes(letters)));
+    }
+
+    /**
+     * @return the position rounded up to the next record boundary
+     */
+    static int align(int position) {
+        return (position + 3) & ~3;
+    }
+
+    private static String filename(long sequence) {
+        return String.format("%012d", sequence) + EXTENSION;
+    }
+}
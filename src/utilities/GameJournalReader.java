@@ -0,0 +1,307 @@
+package utilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * @author Bennett Brixen
+ * This reads the games written by GameJournal. Segments are memory mapped and read in order, and every record is
+ * handed to a Visitor as primitives: packed words (see WordDictionary) and patterns (see PatternScorer).
+ * No Guess objects or Strings are created, and the arrays given to the visitor are reused for every record,
+ * so scanning millions of games only allocates per segment.
+ *
+ * A record is only read if it was committed (its length was written) and its checksum matches, so a segment
+ * that was being written when the program crashed is read up to the last complete game.
+ *
+ * A journal can be scanned while a program is still adding to it. If compaction replaces segments partway through
+ * a scan, the segments are listed again and the compacted one is read from the first game not read yet,
+ * so every game is still given to the visitor exactly once, in order. Games added after a segment was read
+ * may or may not be seen.
+ *
+ * Usage: GameJournalReader [directory], which prints a summary of the journal
+ */
+public class GameJournalReader {
+
+    /**
+     * This is given every game in the journal, in the order they were written
+     */
+    public interface Visitor {
+
+        /**
+         * @param gameId - the id the game had while it was played
+         * @param startMillis - when the game started
+         * @param endMillis - when the game ended
+         * @param letters - the number of letters in each word
+         * @param answer - the packed answer
+         * @param won - true if the last guess was the answer
+         * @param guessCount - the number of guesses
+         * @param guesses - the packed guesses, only the first guessCount are this game's. This is reused after the call
+         * @param patterns - the pattern of each guess, only the first guessCount are this game's. This is reused too
+         */
+        void game(long gameId, long startMillis, long endMillis, int letters, long answer, boolean won,
+                  int guessCount, long[] guesses, int[] patterns);
+    }
+
+    private GameJournalReader() {} // only static methods
+
+    /**
+     * This prints how many games are in a journal and how they went
+     *
+     * @param args - the journal directory, or nothing for the default one
+     * @throws IOException if the journal could not be read
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : GameJournal.DEFAULT_DIRECTORY);
+        long[] totals = new long[3]; // games, won, guesses
+        long start = System.nanoTime();
+        scan(directory, (gameId, startMillis, endMillis, letters, answer, won, guessCount, guesses, patterns) -> {
+            totals[0]++;
+            if (won) totals[1]++;
+            totals[2] += guessCount;
+        });
+        System.out.printf("%d games, %d won, %.2f guesses per game, read in %.1fms%n", totals[0], totals[1],
+                totals[0] == 0 ? 0.0 : (double) totals[2] / totals[0], (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * This reads every game in a journal
+     *
+     * @param directory - the journal directory
+     * @param visitor - given every game, in order
+     * @return the number of games read
+     * @throws IOException if a segment could not be read
+     */
+    public static long scan(Path directory, Visitor visitor) throws IOException {
+        long[] guesses = new long[GameJournal.MAX_GUESSES];
+        int[] patterns = new int[GameJournal.MAX_GUESSES];
+        List<long[]> read = new ArrayList<>(); // {first segment, games} of every file read so far, in order
+        long readThrough = 0; // the last segment that has been read
+        long games = 0;
+
+        List<Segment> segments = segments(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).last <= readThrough) continue;
+            ByteBuffer buffer;
+            try {
+                buffer = map(segments.get(i).file, FileChannel.MapMode.READ_ONLY);
+            } catch (NoSuchFileException e) {
+                // compaction deleted it after copying it into another segment, so that one is read instead
+                segments = segments(directory);
+                i = -1;
+                continue;
+            }
+
+            // the file may have been replaced by a compacted one since it was listed, so its own header is used
+            long first = buffer.getLong(8), last = buffer.getLong(16);
+            if (last <= readThrough) continue;
+            long skip = 0; // games from segments this one now holds that were already read from their old files
+            while (!read.isEmpty() && read.get(read.size() - 1)[0] >= first) skip += read.remove(read.size() - 1)[1];
+
+            int end = validEnd(buffer);
+            long inFile = 0;
+            for (int position = GameJournal.SEGMENT_HEADER; position < end; inFile++) {
+                if (inFile >= skip) read(buffer, position, visitor, guesses, patterns);
+                position = next(buffer, position);
+            }
+            games += Math.max(0, inFile - skip);
+            read.add(new long[] {first, Math.max(inFile, skip)});
+            readThrough = last;
+        }
+        return games;
+    }
+
+    /**
+     * This reads one record and gives it to the visitor
+     */
+    private static void read(ByteBuffer buffer, int position, Visitor visitor, long[] guesses, int[] patterns) {
+        int length = buffer.getInt(position);
+        int at = position + GameJournal.RECORD_HEADER;
+        long gameId = buffer.getLong(at);
+        long startMillis = buffer.getLong(at + 8);
+        long endMillis = startMillis + (buffer.getInt(at + 16) & 0xFFFFFFFFL);
+        int letters = buffer.get(at + 20);
+        int guessCount = buffer.get(at + 21) & 0xFF;
+        boolean won = (buffer.get(at + 22) & GameJournal.WON) != 0;
+        at += 23;
+
+        int wordBytes = MappedDictionary.wordBytes(letters);
+        int patternBytes = GameJournal.patternBytes(letters);
+        long answer = readBytes(buffer, at, wordBytes);
+        at += wordBytes;
+        for (int i = 0; i < guessCount; i++) {
+            guesses[i] = readBytes(buffer, at, wordBytes);
+            patterns[i] = (int) readBytes(buffer, at + wordBytes, patternBytes);
+            at += wordBytes + patternBytes;
+        }
+
+        visitor.game(gameId, startMillis, endMillis, letters, answer, won, guessCount, guesses, patterns);
+    }
+
+    /**
+     * This gives the position of the record after the one at position
+     */
+    private static int next(ByteBuffer buffer, int position) {
+        return GameJournal.align(position + GameJournal.RECORD_HEADER + buffer.getInt(position));
+    }
+
+    private static long readBytes(ByteBuffer buffer, int at, int bytes) {
+        long value = 0;
+        for (int i = 0; i < bytes; i++) value = (value << 8) | (buffer.get(at + i) & 0xFF);
+        return value;
+    }
+
+    /**
+     * This finds the end of the last complete record in a segment. Reading stops at the first record that was
+     * never committed, runs past the segment, or does not match its checksum.
+     *
+     * @param segment - the whole mapped segment, including its header
+     * @return the position after the last complete record
+     */
+    static int validEnd(ByteBuffer segment) {
+        int limit = segment.limit();
+        if (segment.getInt(GameJournal.SEALED_AT) != 0)
+            limit = Math.min(limit, GameJournal.SEGMENT_HEADER + segment.getInt(GameJournal.USED_AT));
+
+        CRC32 crc = new CRC32();
+        int position = GameJournal.SEGMENT_HEADER;
+        while (position + GameJournal.RECORD_HEADER <= limit) {
+            int length = segment.getInt(position);
+            int body = position + GameJournal.RECORD_HEADER;
+            if (length <= 0 || length > limit - body) break;
+
+            crc.reset();
+            crc.update(segment.duplicate().position(body).limit(body + length));
+            if ((int) crc.getValue() != segment.getInt(position + 4)) break;
+            position = GameJournal.align(body + length);
+        }
+        return Math.min(position, limit);
+    }
+
+    /**
+     * This represents one segment file and the range of segments it holds.
+     * A compacted segment holds every segment from first to last.
+     */
+    static final class Segment {
+        final Path file;
+        final long first, last;
+        final boolean sealed;
+        final int used; // the bytes of records, only known once the segment is sealed
+
+        Segment(Path file, long first, long last, boolean sealed, int used) {
+            this.file = file;
+            this.first = first;
+            this.last = last;
+            this.sealed = sealed;
+            this.used = used;
+        }
+    }
+
+    /**
+     * This lists the segments of a journal in order. If compaction was cut off after writing a compacted segment
+     * but before deleting the segments it replaced, those segments are left out (see coveredSegments)
+     *
+     * @param directory - the journal directory
+     * @return the live segments, oldest first
+     * @throws IOException if the directory or a segment header could not be read
+     */
+    static List<Segment> segments(Path directory) throws IOException {
+        List<Segment> live = new ArrayList<>();
+        long covered = -1; // the last segment held by a segment already in the list
+        for (Segment segment : allSegments(directory)) {
+            if (segment.first <= covered) continue;
+            live.add(segment);
+            covered = segment.last;
+        }
+        return live;
+    }
+
+    /**
+     * This finds the segments that were already copied into a compacted segment, but not deleted
+     *
+     * @param directory - the journal directory
+     * @return the segments that can be deleted
+     * @throws IOException if the directory or a segment header could not be read
+     */
+    static List<Segment> coveredSegments(Path directory) throws IOException {
+        List<Segment> covered = new ArrayList<>();
+        long last = -1;
+        for (Segment segment : allSegments(directory)) {
+            if (segment.first <= last) covered.add(segment);
+            else last = segment.last;
+        }
+        return covered;
+    }
+
+    /**
+     * This checks for the header of a segment that was being written when the machine went down, before its header
+     * reached the disk
+     *
+     * @param header - the start of the file, flipped for reading
+     * @return true if the file is shorter than a header or the header is all zeros
+     */
+    static boolean isBlank(ByteBuffer header) {
+        if (header.remaining() < GameJournal.SEGMENT_HEADER) return true;
+        for (int i = header.position(); i < header.limit(); i++) if (header.get(i) != 0) return false;
+        return true;
+    }
+
+    /**
+     * This lists every segment file with a valid header, ordered by the first segment each holds.
+     * When two hold the same first segment the compacted one (holding more) comes first.
+     * Files that compaction deletes while they are being listed are left out.
+     */
+    private static List<Segment> allSegments(Path directory) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) return segments;
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(GameJournal.EXTENSION)).toList();
+        }
+        for (Path file : files) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(GameJournal.SEGMENT_HEADER);
+                channel.read(header, 0);
+                header.flip();
+                if (isBlank(header)) continue; // its header never reached the disk, GameJournal.open gives it one back
+                if (header.remaining() < GameJournal.SEGMENT_HEADER || header.getInt() != GameJournal.MAGIC
+                        || header.getInt() != GameJournal.VERSION)
+                    throw new IOException(file + " is not a journal segment");
+                segments.add(new Segment(file, header.getLong(), header.getLong(), header.getInt() != 0,
+                        header.getInt()));
+            } catch (NoSuchFileException e) {
+                // it was copied into a compacted segment, which is in the list instead
+            }
+        }
+        segments.sort((a, b) -> a.first != b.first ? Long.compare(a.first, b.first) : Long.compare(b.last, a.last));
+        return segments;
+    }
+
+    /**
+     * This maps a whole segment file
+     *
+     * @param file - the segment
+     * @param mode - read only, or read write for the segment being written
+     * @return the mapped segment
+     * @throws IOException if it could not be mapped
+     */
+    static MappedByteBuffer map(Path file, FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[] {StandardOpenOption.READ}
+                : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(mode, 0, channel.size());
+        }
+    }
+}
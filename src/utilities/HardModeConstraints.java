@@ -0,0 +1,85 @@
+package utilities;
+
+import java.util.Arrays;
+
+/**
+ * @author Bennett Brixen
+ * This class keeps track of the hints revealed so far, for hard mode. In hard mode every guess has to use them:
+ * 	a letter marked CORRECT has to stay in that spot
+ * 	a letter marked CORRECT or CORRECT_WRONG_INDEX has to be in the guess, as many times as it was marked in one guess
+ *
+ * Rather than replaying every earlier guess, each guess is folded into the constraints as it is made,
+ * so both adding a guess and checking a guess only look at the letters of one word.
+ * Each game has its own, and it is not safe to share between threads.
+ */
+public class HardModeConstraints {
+
+    private final int letters;
+    private final int[] greens; // the letter (0-25) that has to be at each index, or -1 if there is none yet
+    private final int[] minCounts = new int[26]; // the fewest times each letter has to appear
+    private final int[] required = new int[26]; // the letters with a minimum count, in the order they were found
+    private int requiredCount;
+    private final int[] counts = new int[26]; // scratch space for counting the letters of one word
+
+    /**
+     * @param letters - the number of letters in each word
+     */
+    public HardModeConstraints(int letters) {
+        this.letters = letters;
+        this.greens = new int[letters];
+        Arrays.fill(greens, -1);
+    }
+
+    /**
+     * This adds the hints revealed by a guess
+     *
+     * @param guess - a scored guess, in uppercase
+     */
+    public void update(Guess guess) {
+        String word = guess.getGuess();
+        INDEX_RESULT[] results = guess.getIndices();
+
+        for (int i = 0; i < letters; i++) {
+            if (results[i] == INDEX_RESULT.CORRECT) greens[i] = word.charAt(i) - 'A';
+            if (results[i] != INDEX_RESULT.INCORRECT) counts[word.charAt(i) - 'A']++;
+        }
+
+        // a letter marked twice in one guess is in the answer at least twice
+        for (int i = 0; i < letters; i++) {
+            int letter = word.charAt(i) - 'A';
+            if (counts[letter] > minCounts[letter]) {
+                if (minCounts[letter] == 0) required[requiredCount++] = letter;
+                minCounts[letter] = counts[letter];
+            }
+            counts[letter] = 0;
+        }
+    }
+
+    /**
+     * This checks that a guess uses every hint revealed so far
+     *
+     * @param packed - the packed guess (see WordDictionary)
+     * @throws IncorrectGuessException if the guess ignores a hint, saying which one
+     */
+    public void check(long packed) throws IncorrectGuessException {
+        for (int i = 0; i < letters; i++) {
+            int letter = WordDictionary.letterAt(packed, letters, i);
+            if (greens[i] >= 0 && letter != greens[i])
+                throw new IncorrectGuessException("Letter " + (i + 1) + " must be " + (char) ('A' + greens[i]) + "\n");
+        }
+
+        for (int i = 0; i < letters; i++) counts[WordDictionary.letterAt(packed, letters, i)]++;
+
+        int missing = -1;
+        for (int i = 0; i < requiredCount && missing < 0; i++)
+            if (counts[required[i]] < minCounts[required[i]]) missing = required[i];
+
+        for (int i = 0; i < letters; i++) counts[WordDictionary.letterAt(packed, letters, i)] = 0;
+
+        if (missing >= 0) {
+            char letter = (char) ('A' + missing);
+            throw new IncorrectGuessException(minCounts[missing] == 1 ? "Guess must contain " + letter + "\n"
+                    : "Guess must contain " + minCounts[missing] + " " + letter + "'s\n");
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package utilities;
 
-import javafx.scene.paint.Color;
-
 /**
  * @author Bennett Brixen
  *
@@ -19,32 +17,29 @@ import javafx.scene.paint.Color;
  * which means we can loop through the characters and results at the same time and essentially add them
  * together to apply the color coding
  *
- * I used the Javafx Color similarly to the ascii color code, this means that the color of the labels is stored
- * along with the result of the index.
+ * The gui colors are not stored here, they live in view.ColorTheme. That way the model, controller and utilities
+ * never load JavaFX, so the text view and the headless tools do not need it at all.
  */
 public enum INDEX_RESULT {
 
-	INCORRECT("Incorrect!", "\u001B[31m", Color.rgb(50,50,50)),
-	CORRECT("Correct!", "\u001B[32m", Color.GREEN),
-	CORRECT_WRONG_INDEX("Correct but wrong location", "\u001B[34m", Color.YELLOW),
-	UNGUESSED("???", "\u001B[0m", Color.WHITE); // added this for storing unguessed characters in the list of all characters
+	INCORRECT("Incorrect!", "\u001B[31m"),
+	CORRECT("Correct!", "\u001B[32m"),
+	CORRECT_WRONG_INDEX("Correct but wrong location", "\u001B[34m"),
+	UNGUESSED("???", "\u001B[0m"); // added this for storing unguessed characters in the list of all characters
 
 	private final String description;
 	private final String asciiColor;
-	private final Color javafxColor;
 
 	/**
 	 * This creates an index result.
 	 *
-	 * Each index result must have a description along with two different color codes for the different views
+	 * Each index result must have a description along with the color code for the text view
 	 * @param description - type of index, either incorrect, correct, correct but wrong location, or ??? (for unguessed)
 	 * @param ascii - the ascii color code
-	 * @param fx - the javafx color code
 	 */
-	INDEX_RESULT(String description, String ascii, Color fx) {
+	INDEX_RESULT(String description, String ascii) {
 		this.description = description;
 		this.asciiColor = ascii;
-		this.javafxColor = fx;
 	}
 
 	/**
@@ -67,8 +62,4 @@ public enum INDEX_RESULT {
 	public String getAsciiColor() {
 		return this.asciiColor;
 	}
-
-	public Color getJavaFXColor() {
-		return this.javafxColor;
-	}
 }
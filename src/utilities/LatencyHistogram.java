@@ -0,0 +1,157 @@
+package utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Bennett Brixen
+ * This class counts how long something took, in nanoseconds, in a fixed number of buckets.
+ *
+ * The buckets work like an HDR histogram: every power of two is split into SUB_BUCKETS equal buckets, so any value
+ * is counted in a bucket less than 1/SUB_BUCKETS wider than the value itself, and everything up to Long.MAX_VALUE
+ * fits in BUCKETS counters. Recording a value is a few bit operations and an atomic increment,
+ * with no locks and nothing allocated, so it is cheap enough to leave on in every game.
+ *
+ * A Summary is read without stopping anyone recording, so its numbers can be a few values apart from each other.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS; // the last one ends at Long.MAX_VALUE
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * This counts one value
+     *
+     * @param nanos - how long it took, negative values are counted as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucket(nanos));
+        total.add(nanos);
+        if (nanos > max.get()) max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * This forgets every value counted so far
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.reset();
+        max.set(0);
+    }
+
+    /**
+     * This adds up the buckets into the numbers people usually want to see
+     *
+     * @return the count, mean, percentiles and max so far
+     */
+    public Summary summary() {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) count += snapshot[i] = counts.get(i);
+        long mean = count == 0 ? 0 : total.sum() / count;
+        long highest = max.get();
+        return new Summary(count, mean, percentile(snapshot, count, 0.5, highest),
+                percentile(snapshot, count, 0.9, highest), percentile(snapshot, count, 0.99, highest),
+                percentile(snapshot, count, 0.999, highest), highest);
+    }
+
+    /**
+     * Finds the bucket a value is counted in
+     *
+     * @param value - a value that is not negative
+     * @return the index of its bucket
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // at least SUB_BUCKET_BITS
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Gets the biggest value that is counted in a bucket
+     *
+     * @param bucket - the index of the bucket
+     * @return the top of the bucket
+     */
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Finds the value that a fraction of the counted values are at or below
+     *
+     * @param counts - the buckets
+     * @param count - the number of values in them
+     * @param fraction - the fraction, like 0.99
+     * @param max - the biggest value counted, since the top of its bucket may be bigger
+     * @return the top of the bucket the percentile falls in, or max if that is smaller
+     */
+    private static long percentile(long[] counts, long count, double fraction, long max) {
+        if (count == 0) return 0;
+        long needed = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= needed) return Math.min(highestValue(i), max);
+        }
+        return max;
+    }
+
+    /**
+     * This class represents a histogram at one moment. Percentiles are the top of the bucket they fall in (or the max).
+     * Its getters are what JMX clients show for it (see EngineMetricsMXBean)
+     */
+    public static final class Summary {
+        private final long count, meanNanos, p50Nanos, p90Nanos, p99Nanos, p999Nanos, maxNanos;
+
+        Summary(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos,
+                long maxNanos) {
+            this.count = count;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.p999Nanos = p999Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP90Nanos() {
+            return p90Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getP999Nanos() {
+            return p999Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+}
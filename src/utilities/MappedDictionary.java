@@ -0,0 +1,146 @@
+package utilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * @author Bennett Brixen
+ * This class represents a dictionary that was compiled by DictionaryCompiler into a binary file.
+ * The file is memory mapped, and every lookup reads straight from the mapped file, so no Strings
+ * (or even longs) are created for the words until someone asks for one.
+ *
+ * The file starts with a HEADER_SIZE byte header:
+ * 	magic, version, letters, word count, bytes per word, CRC32 of the words
+ * and is followed by the packed words, each one stored big endian in the smallest number of bytes that fits
+ * 5 bits per letter. The words are sorted, so looking one up is a binary search.
+ */
+public class MappedDictionary implements WordList {
+
+    static final int MAGIC = 0x57444943; // "WDIC"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private final int letters;
+    private final int count;
+    private final int wordBytes;
+    private final MappedByteBuffer words;
+
+    /**
+     * @param letters - the number of letters in each word
+     * @param count - the number of words
+     * @param wordBytes - the number of bytes each word takes up
+     * @param words - the mapped words
+     */
+    private MappedDictionary(int letters, int count, int wordBytes, MappedByteBuffer words) {
+        this.letters = letters;
+        this.count = count;
+        this.wordBytes = wordBytes;
+        this.words = words;
+    }
+
+    /**
+     * This maps a compiled dictionary file and checks that it is not corrupted
+     *
+     * @param file - the compiled dictionary
+     * @return the mapped dictionary
+     * @throws IOException if the file could not be read or is not a valid compiled dictionary
+     */
+    public static MappedDictionary open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION)
+                throw new IOException(file + " is not a compiled dictionary");
+
+            int letters = header.getInt();
+            int count = header.getInt();
+            int wordBytes = header.getInt();
+            long checksum = header.getLong();
+            if (letters <= 0 || letters > WordDictionary.MAX_LENGTH || wordBytes != wordBytes(letters)
+                    || channel.size() != HEADER_SIZE + (long) count * wordBytes)
+                throw new IOException(file + " has a broken header");
+
+            MappedByteBuffer words = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) count * wordBytes);
+            CRC32 crc = new CRC32();
+            crc.update(words.duplicate());
+            if (crc.getValue() != checksum)
+                throw new IOException(file + " is corrupted");
+
+            return new MappedDictionary(letters, count, wordBytes, words);
+        }
+    }
+
+    /**
+     * Gets the number of bytes needed to store one packed word
+     *
+     * @param letters - the number of letters in each word
+     * @return the bytes per word
+     */
+    static int wordBytes(int letters) {
+        return (letters * 5 + 7) / 8;
+    }
+
+    /**
+     * This gets the packed word at a specific index, in sorted order
+     *
+     * @param index - the index of the word
+     * @return the packed word
+     */
+    @Override
+    public long get(int index) {
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("Out of dictionary bounds");
+
+        long packed = 0;
+        int offset = index * wordBytes;
+        for (int i = 0; i < wordBytes; i++) packed = (packed << 8) | (words.get(offset + i) & 0xFF);
+        return packed;
+    }
+
+    /**
+     * Finds the index of a packed word with a binary search
+     *
+     * @param packed - the packed word, from WordDictionary.encode
+     * @return the index of the word, or -1 if it is not in the dictionary
+     */
+    @Override
+    public int indexOf(long packed) {
+        if (packed <= 0) return -1;
+
+        int low = 0, high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long word = get(middle);
+            if (word < packed) low = middle + 1;
+            else if (word > packed) high = middle - 1;
+            else return middle;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of words in the dictionary
+     *
+     * @return number of words
+     */
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the number of letters in each word of this dictionary
+     *
+     * @return the word length
+     */
+    @Override
+    public int getLetters() {
+        return letters;
+    }
+}
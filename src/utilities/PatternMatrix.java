@@ -0,0 +1,213 @@
+package utilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * @author Bennett Brixen
+ * This class represents a precomputed matrix of the pattern of every dictionary word guessed against every other
+ * dictionary word. It is built by PatternMatrixBuilder and stored in a file, which this memory maps so the
+ * matrix lives off heap and looking up a pattern is a single read from the mapped file.
+ *
+ * The file starts with a HEADER_SIZE byte header:
+ * 	magic, version, letters, word count, bytes per pattern, checksum of the word list, completed rows
+ * and is followed by the patterns, one row per guess and one column per answer.
+ * Patterns for 5 letter words fit in 1 byte (3^5 = 243), longer words need 2 bytes per pattern.
+ *
+ * The rows and columns are in sorted word order, and the checksum is over the sorted packed words, so the same
+ * matrix belongs to a text dictionary (in file order) and its compiled version (sorted) alike. If the words
+ * change the matrix no longer matches and has to be rebuilt. A dictionary that is not sorted gets the matrix
+ * index of each of its words worked out once when the matrix is opened.
+ *
+ * DictionaryRegistry opens the matrix next to a dictionary (see filename) whenever it loads that dictionary,
+ * so the hints of every game read their patterns from it once it has been built.
+ */
+public class PatternMatrix {
+
+    static final int MAGIC = 0x57504D58; // "WPMX"
+    static final int VERSION = 2; // 1 was in dictionary order
+    static final int HEADER_SIZE = 64;
+    static final int COMPLETED_ROWS_OFFSET = 28;
+
+    private final int letters;
+    private final int count;
+    private final int cellBytes;
+    private final int rowsPerSegment;
+    private final MappedByteBuffer[] segments; // a single mapping is limited to 2GB, so big matrices are split by row
+    private final int[] order; // the matrix index of each dictionary index, or null if the dictionary is sorted
+
+    /**
+     * This creates the matrix from a fully built file
+     *
+     * @param letters - the number of letters in each word
+     * @param count - the number of words in the dictionary
+     * @param cellBytes - bytes per pattern
+     * @param segments - the mapped rows
+     * @param rowsPerSegment - the number of rows in each mapping
+     * @param order - the matrix index of each dictionary index, or null if they are the same
+     */
+    private PatternMatrix(int letters, int count, int cellBytes, MappedByteBuffer[] segments, int rowsPerSegment,
+                          int[] order) {
+        this.letters = letters;
+        this.count = count;
+        this.cellBytes = cellBytes;
+        this.segments = segments;
+        this.rowsPerSegment = rowsPerSegment;
+        this.order = order;
+    }
+
+    /**
+     * This memory maps a matrix file and checks that it was fully built from this exact dictionary
+     *
+     * @param file - the matrix file
+     * @param dictionary - the dictionary the matrix should belong to
+     * @return the mapped matrix
+     * @throws IOException if the file could not be read, is unfinished, or was built from a different dictionary
+     */
+    public static PatternMatrix open(Path file, WordList dictionary) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+
+            int count = dictionary.size();
+            int cellBytes = cellBytes(dictionary.getLetters());
+            long[] sorted = sortedWords(dictionary);
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getInt() != dictionary.getLetters() || header.getInt() != count
+                    || header.getInt() != cellBytes || header.getLong() != checksum(sorted))
+                throw new IOException(file + " was not built from this dictionary");
+            if (header.getInt() != count)
+                throw new IOException(file + " is not finished building");
+
+            long rowBytes = (long) count * cellBytes;
+            int rowsPerSegment = (int) Math.max(1, Math.min(count, Integer.MAX_VALUE / rowBytes));
+            MappedByteBuffer[] segments = new MappedByteBuffer[(count + rowsPerSegment - 1) / rowsPerSegment];
+            for (int i = 0; i < segments.length; i++) {
+                int rows = Math.min(rowsPerSegment, count - i * rowsPerSegment);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + i * rowsPerSegment * rowBytes, rows * rowBytes);
+            }
+            return new PatternMatrix(dictionary.getLetters(), count, cellBytes, segments, rowsPerSegment,
+                    order(dictionary, sorted));
+        }
+    }
+
+    /**
+     * This finds where each word of a dictionary is in the matrix
+     *
+     * @return the matrix index of each dictionary index, or null if the dictionary is already sorted
+     */
+    private static int[] order(WordList dictionary, long[] sorted) {
+        int[] order = new int[sorted.length];
+        boolean same = true;
+        for (int i = 0; i < order.length; i++) {
+            order[i] = Arrays.binarySearch(sorted, dictionary.get(i));
+            same &= order[i] == i;
+        }
+        return same ? null : order;
+    }
+
+    /**
+     * Gets the filename of the matrix for a text dictionary
+     *
+     * @param textFile - the text dictionary, like Dictionaries/Dictionary5.txt
+     * @return the matrix filename, like Dictionaries/Dictionary5.patterns
+     */
+    public static String filename(String textFile) {
+        int extension = textFile.lastIndexOf('.');
+        if (extension <= textFile.lastIndexOf('/')) extension = textFile.length();
+        return textFile.substring(0, extension) + ".patterns";
+    }
+
+    /**
+     * Gets the pattern of one dictionary word guessed against another
+     *
+     * @param guessIndex - the dictionary index of the guess
+     * @param answerIndex - the dictionary index of the answer
+     * @return the pattern, the same as PatternScorer.score would return
+     */
+    public int pattern(int guessIndex, int answerIndex) {
+        if (order != null) {
+            guessIndex = order[guessIndex];
+            answerIndex = order[answerIndex];
+        }
+        MappedByteBuffer segment = segments[guessIndex / rowsPerSegment];
+        int cell = (guessIndex % rowsPerSegment) * count + answerIndex;
+        if (cellBytes == 1) return segment.get(cell) & 0xFF;
+        return segment.getShort(cell * 2) & 0xFFFF;
+    }
+
+    /**
+     * Returns the number of words (rows and columns) in the matrix
+     *
+     * @return number of words
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the number of letters in each word of the matrix
+     *
+     * @return the word length
+     */
+    public int getLetters() {
+        return letters;
+    }
+
+    /**
+     * Gets the number of bytes needed to store one pattern
+     *
+     * @param letters - the number of letters in each word
+     * @return 1 if the patterns fit in a byte, otherwise 2
+     */
+    static int cellBytes(int letters) {
+        return PatternScorer.patternCount(letters) <= 256 ? 1 : 2;
+    }
+
+    /**
+     * This computes a checksum over every packed word in sorted order, which ties a matrix file to its words
+     * no matter what order the dictionary has them in
+     *
+     * @param dictionary - the dictionary to checksum
+     * @return the checksum
+     */
+    public static long checksum(WordList dictionary) {
+        return checksum(sortedWords(dictionary));
+    }
+
+    /**
+     * @param sorted - packed words, already sorted
+     * @return the checksum of the words in that order
+     */
+    static long checksum(long[] sorted) {
+        CRC32 crc = new CRC32();
+        ByteBuffer word = ByteBuffer.allocate(Long.BYTES);
+        for (long packed : sorted) {
+            word.clear();
+            word.putLong(packed).flip();
+            crc.update(word);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Gets every packed word of a dictionary in sorted order, which is the order of the matrix rows and columns
+     *
+     * @param dictionary - the dictionary
+     * @return the sorted packed words
+     */
+    static long[] sortedWords(WordList dictionary) {
+        long[] words = new long[dictionary.size()];
+        for (int i = 0; i < words.length; i++) words[i] = dictionary.get(i);
+        Arrays.sort(words);
+        return words;
+    }
+}
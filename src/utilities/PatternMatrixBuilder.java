@@ -0,0 +1,125 @@
+package utilities;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * @author Bennett Brixen
+ * This is a tool that precomputes the PatternMatrix file for a dictionary.
+ *
+ * Every row (one guess against every answer) is independent, so rows are scored in parallel across all cores.
+ * The rows are written in blocks, and after each block is flushed to disk the header records how many rows
+ * are done. If the build gets interrupted, running it again picks up from the last finished block.
+ * If the dictionary changed since the file was started, the old file is thrown away and the build starts over.
+ * The rows are in sorted word order (see PatternMatrix), so it does not matter whether the text dictionary or
+ * its compiled version is read, or which of the two tools runs first.
+ *
+ * Usage: PatternMatrixBuilder letters [dictionary file] [matrix file]
+ */
+public class PatternMatrixBuilder {
+
+    private static final int BLOCK_ROWS = 512; // rows written between checkpoints
+
+    /**
+     * This builds the matrix for the dictionary given on the command line
+     *
+     * @param args - the number of letters, then optionally the dictionary and matrix filenames
+     * @throws IOException if either file could not be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        int letters = Integer.parseInt(args[0]);
+        String dictionaryFile = args.length > 1 ? args[1] : DictionaryRegistry.filename(letters);
+        Path matrixFile = Paths.get(args.length > 2 ? args[2] : PatternMatrix.filename(dictionaryFile));
+
+        long start = System.nanoTime();
+        WordDictionary dictionary = WordDictionary.load(dictionaryFile, letters);
+        build(dictionary, matrixFile);
+        System.out.printf("Built %d x %d patterns in %.1fs%n", dictionary.size(), dictionary.size(),
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * This builds (or finishes building) the matrix file for a dictionary
+     *
+     * @param dictionary - the dictionary to score every word of
+     * @param file - the matrix file
+     * @throws IOException if the file could not be written
+     */
+    public static void build(WordList dictionary, Path file) throws IOException {
+        int letters = dictionary.getLetters();
+        int count = dictionary.size();
+        int cellBytes = PatternMatrix.cellBytes(letters);
+        // unpacking the words once, in matrix order, so every thread reads the same plain array
+        long[] words = PatternMatrix.sortedWords(dictionary);
+        long checksum = PatternMatrix.checksum(words);
+        long rowBytes = (long) count * cellBytes;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int completedRows = resumeFrom(channel, letters, count, cellBytes, checksum);
+            if (completedRows == 0) {
+                channel.truncate(0);
+                writeHeader(channel, letters, count, cellBytes, checksum);
+            }
+
+            for (int firstRow = completedRows; firstRow < count; firstRow += BLOCK_ROWS) {
+                int rows = Math.min(BLOCK_ROWS, count - firstRow);
+                MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_WRITE,
+                        PatternMatrix.HEADER_SIZE + firstRow * rowBytes, rows * rowBytes);
+
+                int blockStart = firstRow;
+                IntStream.range(0, rows).parallel().forEach(row -> {
+                    long guess = words[blockStart + row];
+                    int cell = row * count;
+                    for (int answer = 0; answer < count; answer++, cell++) {
+                        int pattern = PatternScorer.score(guess, words[answer], letters);
+                        if (cellBytes == 1) block.put(cell, (byte) pattern);
+                        else block.putShort(cell * 2, (short) pattern);
+                    }
+                });
+                block.force(); // the rows have to be on disk before the header says they are done
+
+                ByteBuffer done = ByteBuffer.allocate(Integer.BYTES).putInt(firstRow + rows).flip();
+                channel.write(done, PatternMatrix.COMPLETED_ROWS_OFFSET);
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * This checks if an existing file was started from the same dictionary, and if so how far it got
+     *
+     * @return the number of finished rows, or 0 if the file has to be started over
+     */
+    private static int resumeFrom(FileChannel channel, int letters, int count, int cellBytes, long checksum)
+            throws IOException {
+        if (channel.size() < PatternMatrix.HEADER_SIZE) return 0;
+
+        ByteBuffer header = ByteBuffer.allocate(PatternMatrix.HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt() != PatternMatrix.MAGIC || header.getInt() != PatternMatrix.VERSION
+                || header.getInt() != letters || header.getInt() != count
+                || header.getInt() != cellBytes || header.getLong() != checksum)
+            return 0; // a different dictionary, so none of the rows can be reused
+        return Math.min(header.getInt(), count);
+    }
+
+    /**
+     * This writes a fresh header with no finished rows
+     */
+    private static void writeHeader(FileChannel channel, int letters, int count, int cellBytes, long checksum)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(PatternMatrix.HEADER_SIZE);
+        header.putInt(PatternMatrix.MAGIC).putInt(PatternMatrix.VERSION).putInt(letters).putInt(count)
+                .putInt(cellBytes).putLong(checksum).putInt(0);
+        header.clear(); // the rest of the header is padding
+        channel.write(header, 0);
+    }
+}
@@ -0,0 +1,179 @@
+package utilities;
+
+/**
+ * @author Bennett Brixen
+ * This class scores a guess against an answer, which is the core of wordle.
+ *
+ * The result is packed into a single int pattern, which is a base 3 number with one digit per letter:
+ * 0 = INCORRECT, 1 = CORRECT_WRONG_INDEX, 2 = CORRECT, and the first letter is the lowest digit.
+ * So a pattern is always between 0 and 3^letters - 1, and every correct guess has the pattern 3^letters - 1.
+ *
+ * Scoring works on packed words (see WordDictionary) and never allocates anything. The per letter counts
+ * of the answer are kept as 4 bit counters inside two longs (letters A-O in one, P-Z in the other)
+ * instead of an int[26], so nothing is shared and this can be called from any thread.
+ * Duplicate letters follow the normal wordle rules: correct letters are matched first, then the rest
+ * of the guess is marked CORRECT_WRONG_INDEX from left to right until that letter runs out in the answer.
+ */
+public final class PatternScorer {
+
+    public static final int INCORRECT = 0, CORRECT_WRONG_INDEX = 1, CORRECT = 2;
+
+    private static final int[] POWERS_OF_3 = new int[WordDictionary.MAX_LENGTH + 1];
+
+    static {
+        POWERS_OF_3[0] = 1;
+        for (int i = 1; i < POWERS_OF_3.length; i++) POWERS_OF_3[i] = POWERS_OF_3[i - 1] * 3;
+    }
+
+    private PatternScorer() {} // only static methods
+
+    /**
+     * This scores a packed guess against a packed answer
+     *
+     * @param guess - the packed guess
+     * @param answer - the packed answer
+     * @param letters - the number of letters in both words
+     * @return the pattern for this guess
+     */
+    public static int score(long guess, long answer, int letters) {
+        int pattern = 0;
+        int correctMask = 0;
+        long lowCounts = 0, highCounts = 0; // 4 bits per letter, A-O and P-Z
+
+        // first pass: mark the correct letters and count the rest of the answer
+        // the last letter is in the lowest bits, so we walk the word backwards
+        long g = guess, a = answer;
+        for (int i = letters - 1; i >= 0; i--, g >>>= 5, a >>>= 5) {
+            int guessLetter = (int) (g & 31), answerLetter = (int) (a & 31); // 1 = A ... 26 = Z
+            if (guessLetter == answerLetter) {
+                pattern += CORRECT * POWERS_OF_3[i];
+                correctMask |= 1 << i;
+            } else if (answerLetter < 16) {
+                lowCounts += 1L << (answerLetter << 2);
+            } else {
+                highCounts += 1L << ((answerLetter - 16) << 2);
+            }
+        }
+
+        // second pass: hand out the remaining letters left to right
+        int shiftToFirst = 5 * (letters - 1);
+        for (int i = 0; i < letters; i++, shiftToFirst -= 5) {
+            if ((correctMask & (1 << i)) != 0) continue;
+            int guessLetter = (int) ((guess >>> shiftToFirst) & 31);
+            if (guessLetter < 16) {
+                int shift = guessLetter << 2;
+                if (((lowCounts >>> shift) & 0xF) == 0) continue;
+                lowCounts -= 1L << shift;
+            } else {
+                int shift = (guessLetter - 16) << 2;
+                if (((highCounts >>> shift) & 0xF) == 0) continue;
+                highCounts -= 1L << shift;
+            }
+            pattern += CORRECT_WRONG_INDEX * POWERS_OF_3[i];
+        }
+        return pattern;
+    }
+
+    /**
+     * This scores a guess against an answer. Both must be the same length and only contain letters,
+     * but they can be any case.
+     *
+     * @param guess - the word being guessed
+     * @param answer - the correct word
+     * @return the pattern for this guess
+     */
+    public static int score(CharSequence guess, CharSequence answer) {
+        int letters = answer.length();
+        long packedGuess = WordDictionary.encode(guess, letters);
+        long packedAnswer = WordDictionary.encode(answer, letters);
+        if (packedGuess <= 0 || packedAnswer <= 0)
+            throw new IllegalArgumentException("Can only score alphabetic words of the same length");
+        return score(packedGuess, packedAnswer, letters);
+    }
+
+    /**
+     * Gets the result digit (INCORRECT, CORRECT_WRONG_INDEX or CORRECT) for a single letter of a pattern
+     *
+     * @param pattern - the pattern from score
+     * @param index - the index of the letter
+     * @return the digit for that letter
+     */
+    public static int digitAt(int pattern, int index) {
+        return (pattern / POWERS_OF_3[index]) % 3;
+    }
+
+    /**
+     * Gets the INDEX_RESULT for a single letter of a pattern
+     *
+     * @param pattern - the pattern from score
+     * @param index - the index of the letter
+     * @return the result for that letter
+     */
+    public static INDEX_RESULT resultAt(int pattern, int index) {
+        return toResult(digitAt(pattern, index));
+    }
+
+    /**
+     * This unpacks a pattern into a list of INDEX_RESULTs, one per letter
+     *
+     * @param pattern - the pattern from score
+     * @param combination - the list to fill, it must be as long as the word
+     */
+    public static void toResults(int pattern, INDEX_RESULT[] combination) {
+        for (int i = 0; i < combination.length; i++) {
+            combination[i] = toResult(pattern % 3);
+            pattern /= 3;
+        }
+    }
+
+    /**
+     * This packs a list of INDEX_RESULTs back into a pattern. UNGUESSED counts as INCORRECT.
+     *
+     * @param combination - the result of each letter
+     * @return the pattern for those results
+     */
+    public static int fromResults(INDEX_RESULT[] combination) {
+        int pattern = 0;
+        for (int i = combination.length - 1; i >= 0; i--) {
+            int digit = combination[i] == INDEX_RESULT.CORRECT ? CORRECT
+                    : combination[i] == INDEX_RESULT.CORRECT_WRONG_INDEX ? CORRECT_WRONG_INDEX : INCORRECT;
+            pattern = pattern * 3 + digit;
+        }
+        return pattern;
+    }
+
+    /**
+     * Turns a single digit into its INDEX_RESULT. This is a switch rather than a lookup table so that
+     * scoring on its own never has to load INDEX_RESULT.
+     *
+     * @param digit - INCORRECT, CORRECT_WRONG_INDEX or CORRECT
+     * @return the matching result
+     */
+    private static INDEX_RESULT toResult(int digit) {
+        switch (digit) {
+            case CORRECT: return INDEX_RESULT.CORRECT;
+            case CORRECT_WRONG_INDEX: return INDEX_RESULT.CORRECT_WRONG_INDEX;
+            default: return INDEX_RESULT.INCORRECT;
+        }
+    }
+
+    /**
+     * Gets the number of different patterns for a word length
+     *
+     * @param letters - the number of letters
+     * @return 3^letters
+     */
+    public static int patternCount(int letters) {
+        return POWERS_OF_3[letters];
+    }
+
+    /**
+     * Gets the pattern of a correct guess, where every letter is CORRECT
+     *
+     * @param letters - the number of letters
+     * @return 3^letters - 1
+     */
+    public static int winningPattern(int letters) {
+        return POWERS_OF_3[letters] - 1;
+    }
+}
@@ -0,0 +1,219 @@
+package utilities;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * @author Bennett Brixen
+ * This class represents a dictionary of words that all have the same length.
+ *
+ * Instead of storing strings, every word is packed into a single long using 5 bits per letter
+ * (A = 1 ... Z = 26), with the first letter in the highest bits. This means a packed word is never 0
+ * and words of the same length sort the same way as their packed values.
+ * The packed words are kept in an open addressing hash table so checking if a guess is a word is O(1),
+ * and they are also kept in the order they were added so we can pick a random answer by index.
+ *
+ * Words can only be added while the dictionary is being loaded, so once load returns it never changes
+ * and can be shared between threads (see DictionaryRegistry).
+ */
+public class WordDictionary implements WordList {
+
+    public static final int MAX_LENGTH = 12; // 12 * 5 = 60 bits, which fits in a long
+    public static final long WRONG_LENGTH = -1;
+    public static final long NOT_ALPHABETIC = -2;
+
+    private static final int BITS_PER_LETTER = 5;
+    private static final long LETTER_MASK = (1 << BITS_PER_LETTER) - 1;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int letters;
+    private long[] table; // open addressing table, 0 marks an empty slot
+    private int[] tableIndex; // the index in words of each table slot
+    private long[] words; // every word in the order it was added
+    private int size;
+
+    /**
+     * This creates an empty dictionary for words with a specific number of letters
+     *
+     * @param letters - the number of letters in every word of this dictionary
+     */
+    WordDictionary(int letters) {
+        if (letters <= 0 || letters > MAX_LENGTH)
+            throw new IllegalArgumentException("Words must be between 1 and " + MAX_LENGTH + " letters long");
+        this.letters = letters;
+        this.table = new long[DEFAULT_CAPACITY];
+        this.tableIndex = new int[DEFAULT_CAPACITY];
+        this.words = new long[DEFAULT_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * This reads every word from a dictionary file, one word per line.
+     * The file is cleaned up by DictionaryIngester, so blank lines, lines that are the wrong length,
+     * lines with anything other than letters and duplicate words are all skipped.
+     *
+     * @param filename - the dictionary file
+     * @param letters - the number of letters in every word
+     * @return the dictionary of every valid word in the file
+     * @throws IOException if the file could not be read
+     */
+    public static WordDictionary load(String filename, int letters) throws IOException {
+        return DictionaryIngester.ingest(Paths.get(filename), letters).getWords();
+    }
+
+    /**
+     * This packs a word into a long, checking the length and the characters as it goes.
+     * Both upper and lower case letters are accepted, and they pack to the same value.
+     *
+     * @param word - the word to pack
+     * @param letters - the number of letters the word must have
+     * @return the packed word, or WRONG_LENGTH / NOT_ALPHABETIC if the word is invalid
+     */
+    public static long encode(CharSequence word, int letters) {
+        if (word.length() != letters) return WRONG_LENGTH;
+
+        long packed = 0;
+        for (int i = 0; i < letters; i++) {
+            int letter = (word.charAt(i) | 0x20) - 'a'; // | 0x20 lowercases ascii letters
+            if (letter < 0 || letter >= 26) return NOT_ALPHABETIC;
+            packed = (packed << BITS_PER_LETTER) | (letter + 1);
+        }
+        return packed;
+    }
+
+    /**
+     * This turns a packed word back into an uppercase string
+     *
+     * @param packed - the packed word
+     * @param letters - the number of letters in the word
+     * @return the word as an uppercase string
+     */
+    public static String decode(long packed, int letters) {
+        char[] word = new char[letters];
+        for (int i = letters - 1; i >= 0; i--) {
+            word[i] = (char) ('A' + (packed & LETTER_MASK) - 1);
+            packed >>>= BITS_PER_LETTER;
+        }
+        return new String(word);
+    }
+
+    /**
+     * This gets a single letter out of a packed word
+     *
+     * @param packed - the packed word
+     * @param letters - the number of letters in the word
+     * @param index - the index of the letter we want
+     * @return the letter as 0 for A up to 25 for Z
+     */
+    public static int letterAt(long packed, int letters, int index) {
+        return (int) ((packed >>> (BITS_PER_LETTER * (letters - 1 - index))) & LETTER_MASK) - 1;
+    }
+
+    /**
+     * Adds a packed word to the dictionary
+     *
+     * @param packed - the packed word, from encode
+     * @return true if the word was added, false if it was already in the dictionary
+     */
+    boolean add(long packed) {
+        if (packed <= 0) throw new IllegalArgumentException("Cannot add an invalid word");
+        if ((size + 1) * 2 > table.length) resize(); // keep the table at most half full
+
+        int slot = slot(packed, table.length);
+        while (table[slot] != 0) {
+            if (table[slot] == packed) return false; // we dont add duplicates
+            slot = (slot + 1) & (table.length - 1);
+        }
+        table[slot] = packed;
+        tableIndex[slot] = size;
+
+        if (size >= words.length) {
+            long[] newWords = new long[words.length * 2];
+            System.arraycopy(words, 0, newWords, 0, size);
+            words = newWords;
+        }
+        words[size] = packed;
+        size++;
+        return true;
+    }
+
+    /**
+     * Finds the index of a packed word, which is the order it was added in
+     *
+     * @param packed - the packed word, from encode
+     * @return the index of the word, or -1 if it is not in the dictionary
+     */
+    @Override
+    public int indexOf(long packed) {
+        if (packed <= 0) return -1;
+
+        int slot = slot(packed, table.length);
+        long current;
+        while ((current = table[slot]) != 0) {
+            if (current == packed) return tableIndex[slot];
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return -1; // hit an empty slot, so it was never added
+    }
+
+    /**
+     * This gets the packed word at a specific index, in the order the words were added
+     *
+     * @param index - the index of the word
+     * @return the packed word
+     */
+    @Override
+    public long get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Out of dictionary bounds");
+        return words[index];
+    }
+
+    /**
+     * Returns the number of words in the dictionary
+     *
+     * @return number of words
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of letters in each word of this dictionary
+     *
+     * @return the word length
+     */
+    @Override
+    public int getLetters() {
+        return letters;
+    }
+
+    /**
+     * This doubles the hash table and puts every word back in
+     */
+    private void resize() {
+        long[] newTable = new long[table.length * 2];
+        int[] newTableIndex = new int[newTable.length];
+        for (int i = 0; i < size; i++) {
+            int slot = slot(words[i], newTable.length);
+            while (newTable[slot] != 0) slot = (slot + 1) & (newTable.length - 1);
+            newTable[slot] = words[i];
+            newTableIndex[slot] = i;
+        }
+        this.table = newTable;
+        this.tableIndex = newTableIndex;
+    }
+
+    /**
+     * This finds the starting slot of a packed word in a table
+     *
+     * @param packed - the packed word
+     * @param capacity - the table size (always a power of 2)
+     * @return the first slot to check
+     */
+    private static int slot(long packed, int capacity) {
+        long hash = packed * 0x9E3779B97F4A7C15L; // fibonacci hashing spreads out the similar words
+        return (int) (hash >>> (64 - Integer.numberOfTrailingZeros(capacity)));
+    }
+}
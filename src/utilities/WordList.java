@@ -0,0 +1,72 @@
+package utilities;
+
+/**
+ * @author Bennett Brixen
+ * This interface represents a read only list of words that all have the same length, stored as packed longs
+ * (see WordDictionary.encode). Every word has an index, which is used by DictionaryIndex and PatternMatrix.
+ *
+ * WordDictionary keeps the words in memory and MappedDictionary reads them straight from a compiled file,
+ * but everything else only needs to know about this interface.
+ */
+public interface WordList {
+
+    /**
+     * Returns the number of words in the list
+     *
+     * @return number of words
+     */
+    int size();
+
+    /**
+     * Returns the number of letters in each word of the list
+     *
+     * @return the word length
+     */
+    int getLetters();
+
+    /**
+     * This gets the packed word at a specific index
+     *
+     * @param index - the index of the word
+     * @return the packed word
+     */
+    long get(int index);
+
+    /**
+     * Finds the index of a packed word
+     *
+     * @param packed - the packed word, from WordDictionary.encode
+     * @return the index of the word, or -1 if it is not in the list
+     */
+    int indexOf(long packed);
+
+    /**
+     * Checks if a packed word is in the list
+     *
+     * @param packed - the packed word, from WordDictionary.encode
+     * @return true if the word is in the list
+     */
+    default boolean contains(long packed) {
+        return indexOf(packed) >= 0;
+    }
+
+    /**
+     * Checks if a word is in the list. The word is packed as it is checked so no strings are created.
+     *
+     * @param word - the word to look for
+     * @return true if the word is in the list
+     */
+    default boolean contains(CharSequence word) {
+        return contains(WordDictionary.encode(word, getLetters()));
+    }
+
+    /**
+     * This gets the word at a specific index as an uppercase string
+     *
+     * @param index - the index of the word
+     * @return the word as an uppercase string
+     */
+    default String getWord(int index) {
+        return WordDictionary.decode(get(index), getLetters());
+    }
+}
@@ -0,0 +1,36 @@
+package view;
+
+import javafx.scene.paint.Color;
+import utilities.INDEX_RESULT;
+import java.util.EnumMap;
+
+/**
+ * @author Bennett Brixen
+ *
+ * This holds the javafx color of each INDEX_RESULT for the gui.
+ * It used to be stored inside INDEX_RESULT itself, but then scoring any guess loaded JavaFX, even in the text view.
+ * Keeping it here means only the gui ever touches JavaFX.
+ */
+final class ColorTheme {
+
+	private static final EnumMap<INDEX_RESULT, Color> COLORS = new EnumMap<>(INDEX_RESULT.class);
+
+	static {
+		COLORS.put(INDEX_RESULT.INCORRECT, Color.rgb(50, 50, 50));
+		COLORS.put(INDEX_RESULT.CORRECT, Color.GREEN);
+		COLORS.put(INDEX_RESULT.CORRECT_WRONG_INDEX, Color.YELLOW);
+		COLORS.put(INDEX_RESULT.UNGUESSED, Color.WHITE);
+	}
+
+	private ColorTheme() {} // only static methods
+
+	/**
+	 * Gets the color to draw a letter with
+	 *
+	 * @param result - the result of the letter
+	 * @return the javafx color for that result
+	 */
+	static Color colorOf(INDEX_RESULT result) {
+		return COLORS.get(result);
+	}
+}
@@ -0,0 +1,237 @@
+package view;
+
+import model.GameEvent;
+import utilities.Guess;
+import utilities.INDEX_RESULT;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @author Bennett Brixen
+ *
+ * This draws the text view's board. Every frame is built in one reusable buffer out of glyphs that already have
+ * their color codes in them, and the whole frame is written to the terminal at once.
+ *
+ * There are two modes:
+ * 	terminal - the first frame of a game is printed in full, and after that the cursor is moved back up to redraw
+ * 		only the rows that changed. Everything printed under the board (prompts, typed guesses, messages) is
+ * 		cleared at the same time, so the board stays in one place.
+ * 	plain - used when the output is a pipe or a file, every frame is printed in full below the last one
+ *
+ * The mode is picked by whether there is a console, and can be forced with -Dwordle.tty=true or false.
+ * Anything else the text view prints while a game is going has to go through print, so the renderer knows how far
+ * below the board the cursor is. Methods are synchronized since frames are drawn on the event thread.
+ */
+class TextRenderer {
+
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final byte[] CLEAR_LINE = ascii("\r\u001B[2K");
+    private static final byte[] CLEAR_BELOW = ascii("\r\u001B[J");
+    private static final byte[] PROMPT = ascii("Enter a guess: ");
+    private static final byte[] WORDS_LEFT = ascii(" possible words left\n");
+    // if this many lines were printed under the board it may have scrolled away, so a full frame is printed instead
+    private static final int MAX_LINES_BELOW = 10;
+
+    // GLYPHS[result][letter] is the letter in its color followed by a space, index 26 is the empty cell
+    private static final byte[][][] GLYPHS = new byte[INDEX_RESULT.values().length][27][];
+    static {
+        for (INDEX_RESULT result : INDEX_RESULT.values()) {
+            for (int letter = 0; letter < 27; letter++) {
+                char c = letter < 26 ? (char) ('A' + letter) : '-';
+                GLYPHS[result.ordinal()][letter] = ascii(result.getAsciiColor() + c + " " + ANSI_RESET);
+            }
+        }
+    }
+
+    private final PrintStream out;
+    private final boolean terminal;
+    private byte[] buffer = new byte[1024];
+    private int length;
+
+    // what the board on screen shows, for finding the rows that changed. shownRows is null before the first frame
+    private Guess[] shownRows;
+    private final INDEX_RESULT[] shownCharacters = new INDEX_RESULT[26];
+    private int shownRemaining;
+    private int linesBelow; // lines printed under the board since it was drawn
+
+    /**
+     * @param out - where frames are written
+     * @param terminal - true to redraw changed rows in place, false to print every frame in full
+     */
+    TextRenderer(PrintStream out, boolean terminal) {
+        this.out = out;
+        this.terminal = terminal;
+    }
+
+    /**
+     * This makes a renderer for System.out, which redraws in place if there is a console
+     *
+     * @return - the renderer
+     */
+    static TextRenderer forConsole() {
+        String forced = System.getProperty("wordle.tty");
+        boolean terminal = forced == null ? System.console() != null : Boolean.parseBoolean(forced);
+        return new TextRenderer(System.out, terminal);
+    }
+
+    /**
+     * This forgets the board on screen, so the first frame of the next game is printed in full
+     */
+    synchronized void reset() {
+        shownRows = null;
+        linesBelow = 0;
+    }
+
+    /**
+     * This draws the game as it was when the event happened:
+     * a grid of previous and empty guesses, the status of every character, and the words left.
+     * The prompt for the next guess comes after it unless the game is over
+     *
+     * @param event - the event for the latest guess
+     */
+    synchronized void frame(GameEvent event) {
+        frame(event.getProgress(), event.getGuessedCharacters(), event.getRemainingCount(), event.isGameOver());
+    }
+
+    /**
+     * This draws a game from its parts, for when the event with it in never came
+     *
+     * @param rows - every guess so far, and the empty ones after them
+     * @param guessedCharacters - the status of every character
+     * @param remaining - the words that could still be the answer
+     * @param gameOver - true if there is no next guess to prompt for
+     */
+    synchronized void frame(Guess[] rows, INDEX_RESULT[] guessedCharacters, int remaining, boolean gameOver) {
+        length = 0;
+
+        if (!terminal || shownRows == null || shownRows.length != rows.length || linesBelow > MAX_LINES_BELOW) {
+            for (Guess row : rows) appendRow(row);
+            append((byte) '\n');
+            appendCharacters(guessedCharacters);
+            appendRemaining(remaining);
+        } else {
+            // the cursor is at the start of a line, linesBelow lines under the end of the board
+            int height = rows.length + 3;
+            int cursor = height + linesBelow;
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i] == shownRows[i]) continue; // guesses never change once made, so this is enough
+                cursor = moveTo(cursor, i);
+                appendRow(rows[i]);
+                cursor++;
+            }
+            if (!Arrays.equals(guessedCharacters, shownCharacters)) {
+                cursor = moveTo(cursor, rows.length + 1);
+                appendCharacters(guessedCharacters);
+                cursor++;
+            }
+            if (remaining != shownRemaining) {
+                cursor = moveTo(cursor, rows.length + 2);
+                appendRemaining(remaining);
+                cursor++;
+            }
+            moveTo(cursor, height);
+            append(CLEAR_BELOW); // the old prompt and typed guesses
+        }
+
+        if (!gameOver) append(PROMPT);
+        flush();
+
+        shownRows = rows;
+        System.arraycopy(guessedCharacters, 0, shownCharacters, 0, shownCharacters.length);
+        shownRemaining = remaining;
+        linesBelow = 0;
+    }
+
+    /**
+     * This prints text that is not part of the board, keeping track of how far below the board it goes
+     *
+     * @param text - the text to print
+     */
+    synchronized void print(String text) {
+        for (int i = 0; i < text.length(); i++)
+            if (text.charAt(i) == '\n') linesBelow++;
+        out.print(text);
+        out.flush();
+    }
+
+    /**
+     * This is called after a line of input is read, since the enter key moved the cursor down a line
+     */
+    synchronized void inputRead() {
+        linesBelow++;
+    }
+
+    /**
+     * This moves the cursor from one line of the board to the start of another one, clearing it
+     *
+     * @param from - the line the cursor is on now, 0 is the first row of the board
+     * @param to - the line to move to
+     * @return - the line the cursor is on after
+     */
+    private int moveTo(int from, int to) {
+        if (from > to) appendEscape(from - to, 'A');
+        else if (to > from) appendEscape(to - from, 'B');
+        append(CLEAR_LINE);
+        return to;
+    }
+
+    private void appendRow(Guess row) {
+        String word = row.getGuess();
+        INDEX_RESULT[] indices = row.getIndices();
+        for (int i = 0; i < word.length(); i++) append(glyph(indices[i], word.charAt(i)));
+        append((byte) '\n');
+    }
+
+    private void appendCharacters(INDEX_RESULT[] guessedCharacters) {
+        for (int i = 0; i < guessedCharacters.length; i++)
+            append(GLYPHS[guessedCharacters[i].ordinal()][i]);
+        append((byte) '\n');
+    }
+
+    private void appendRemaining(int remaining) {
+        appendNumber(remaining);
+        append(WORDS_LEFT);
+    }
+
+    private void appendEscape(int count, char command) {
+        append((byte) 0x1B);
+        append((byte) '[');
+        appendNumber(count);
+        append((byte) command);
+    }
+
+    private void appendNumber(int number) {
+        if (number >= 10) appendNumber(number / 10);
+        append((byte) ('0' + number % 10));
+    }
+
+    private static byte[] glyph(INDEX_RESULT result, char c) {
+        int letter = c >= 'A' && c <= 'Z' ? c - 'A' : 26;
+        return GLYPHS[result.ordinal()][letter];
+    }
+
+    private void append(byte b) {
+        if (length == buffer.length) buffer = Arrays.copyOf(buffer, length * 2);
+        buffer[length++] = b;
+    }
+
+    private void append(byte[] bytes) {
+        if (length + bytes.length > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(length + bytes.length, length * 2));
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    /**
+     * This writes the frame in one call
+     */
+    private void flush() {
+        out.write(buffer, 0, length);
+        out.flush();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,30 +1,114 @@
 package view;
 
 import javafx.application.Application;
+import utilities.DictionaryRegistry;
+import utilities.EngineMetrics;
+import utilities.GameJournal;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Bennett Brixen
  *
  * This is wordle.
- * You can play with n letters via changing the constant variables in this class (check readme)
- * I would have done this through command line arguments but since we are using those to determine what view to use,
- * I did not want to interfere and possibly confuse the grader
+ * You can play with n letters and m guesses with the -length and -guesses flags (check readme),
+ * and the gui can also switch between them while it is running
  *
  * For gui, supply -gui in the command line, or use no command line arguments
  * For text, supply -text in the command line
+ * For hard mode (every guess has to use the hints so far), also supply -hard
+ * For n letters, supply -length n (there has to be a Dictionaries/Dictionary[n].txt)
+ * For m guesses, supply -guesses m
+ * To play recorded games without a person, supply -batch [file] (stdin if there is no file), see WordleBatchView
+ * To save every game played in the text or gui view, supply -journal [directory] (Journal if there is no directory),
+ * see GameJournal. Games played by -batch are not saved
+ * To watch the engine metrics with JConsole, supply -jmx, see EngineMetrics
  */
 public class Wordle {
 
-    public static final int wordleLength = 5, maxGuesses = 6; // typical wordle
-    public static final String filename = "Dictionaries/Dictionary" + wordleLength + ".txt";
+    public static final int[] LENGTHS = {5, 6, 7}; // the dictionaries that come with the game
+    public static final int[] GUESS_COUNTS = {4, 5, 6, 7, 8};
+
+    // these are the settings for the next game, they start as typical wordle and can be changed by flags or the gui
+    public static int wordleLength = 5, maxGuesses = 6;
+    public static String filename = DictionaryRegistry.filename(wordleLength);
+    public static boolean hardMode = false;
+    public static GameJournal journal = null; // where the text and gui views write finished games, set by -journal
 	
     public static void main(String[] args) {
-        if (args.length > 0) {
-            String cmd = args[0];
-            if (cmd.equals("-text")) new WordleTextView();
-            else if (cmd.equals("-gui")) Application.launch(WordleGUIView.class, args);
+        boolean text = false, batch = false, jmx = false;
+        String script = null, journalDirectory = null;
+        for (int i = 0; i < args.length; i++) {
+            String cmd = args[i];
+            if (cmd.equals("-text")) text = true;
+            else if (cmd.equals("-gui")) text = false;
+            else if (cmd.equals("-hard")) hardMode = true;
+            else if (cmd.equals("-jmx")) jmx = true;
+            else if (cmd.equals("-journal")) {
+                journalDirectory = GameJournal.DEFAULT_DIRECTORY;
+                if (i + 1 < args.length && !args[i + 1].startsWith("-")) journalDirectory = args[++i];
+            }
+            else if (cmd.equals("-batch")) {
+                batch = true;
+                if (i + 1 < args.length && !args[i + 1].startsWith("-")) script = args[++i];
+            }
+            else if ((cmd.equals("-length") || cmd.equals("-guesses")) && i + 1 < args.length) {
+                int value;
+                try {
+                    value = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    System.out.println(cmd + " needs a number, not " + args[i]);
+                    return;
+                }
+                if (cmd.equals("-guesses")) maxGuesses = Math.max(1, value);
+                else setLength(value);
+            }
+        }
+
+        // each game in the script picks its own length, so only the other views need this dictionary
+        if (!batch && !Files.exists(Paths.get(filename))) {
+            System.out.println("There is no dictionary for " + wordleLength + " letter words (" + filename + ")");
+            return;
         }
+
+        if (journalDirectory != null) {
+            try {
+                journal = GameJournal.open(Paths.get(journalDirectory));
+            } catch (IOException e) {
+                System.out.println("Could not open the journal in " + journalDirectory + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        // so the engine metrics can be watched with JConsole, off the main thread since it takes a while
+        if (jmx) CompletableFuture.runAsync(EngineMetrics::register);
+
+        if (batch) new WordleBatchView(script);
+        else if (text) new WordleTextView();
         else Application.launch(WordleGUIView.class, args);
+
+        if (journal != null) journal.close();
+    }
+
+    /**
+     * This changes the word length for the next game, along with the dictionary
+     *
+     * @param letters - the number of letters in each word
+     */
+    static void setLength(int letters) {
+        wordleLength = letters;
+        filename = DictionaryRegistry.filename(letters);
+    }
+
+    /**
+     * This loads the dictionaries for the other lengths in the background, so switching to them does not
+     * have to wait for the file to be read. Failures are ignored here, they show up when that length is picked.
+     */
+    static void preloadOtherLengths() {
+        for (int letters : LENGTHS)
+            if (letters != wordleLength) DictionaryRegistry.getAsync(letters);
     }
     
 }
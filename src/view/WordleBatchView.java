@@ -0,0 +1,238 @@
+package view;
+
+import controller.WordleController;
+import utilities.DictionaryRegistry;
+import utilities.Guess;
+import utilities.INDEX_RESULT;
+import utilities.IncorrectGuessException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import static view.Wordle.*;
+
+/**
+ * @author Bennett Brixen
+ *
+ * This plays scripted games of wordle without anyone at the keyboard, for replaying recorded games.
+ * Each line of the script is one game: the answer followed by the guesses, separated by spaces or commas.
+ * Blank lines and lines starting with # are skipped. The length of each game is the length of its answer,
+ * and the number of guesses and hard mode come from the command line like the other views.
+ *
+ * Every game prints one line of JSON, in the same order as the script:
+ * 	{"line":1,"answer":"CRANE","status":"won","guesses":["SLATE","CRANE"],"results":["..Y.Y","GGGGG"],
+ * 	 "remaining":[31,1],"rejected":[{"guess":"ZZZZZ","reason":"Guess must be a valid word in dictionary"}]}
+ * In the results G is correct, Y is correct but in the wrong place, and . is incorrect.
+ * Status is won, lost, or unfinished if the script ran out of guesses first. Guesses after the game is over are
+ * ignored, and a line that cannot be played at all prints {"line":n,"error":"..."} instead. That is a line with no
+ * dictionary for its length, or with an answer that is not a word in that dictionary.
+ *
+ * The script is read in chunks of lines, and the chunks are played in parallel on the common pool.
+ * Each chunk's output is written once it and every chunk before it are done, so only a few chunks are
+ * ever held in memory.
+ */
+public class WordleBatchView {
+
+    private static final int CHUNK_LINES = 4096;
+    private static final int CHUNKS_IN_FLIGHT = 2 * Runtime.getRuntime().availableProcessors();
+    private static final char[] RESULT_CHARACTERS = new char[INDEX_RESULT.values().length];
+    static {
+        RESULT_CHARACTERS[INDEX_RESULT.CORRECT.ordinal()] = 'G';
+        RESULT_CHARACTERS[INDEX_RESULT.CORRECT_WRONG_INDEX.ordinal()] = 'Y';
+        RESULT_CHARACTERS[INDEX_RESULT.INCORRECT.ordinal()] = '.';
+        RESULT_CHARACTERS[INDEX_RESULT.UNGUESSED.ordinal()] = '-';
+    }
+
+    private long games;
+
+    /**
+     * This is the constructor for the batch view. Like the text view, it plays every game upon being created.
+     * The number of games and how long they took is printed to System.err at the end
+     *
+     * @param source - the script file, or null (or -) to read the script from System.in
+     */
+    public WordleBatchView(String source) {
+        long start = System.nanoTime();
+        try (Reader reader = source == null || source.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8) : new FileReader(source, StandardCharsets.UTF_8)) {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+            run(new BufferedReader(reader, 1 << 16), out);
+            out.flush();
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Could not run the script: " + e.getMessage());
+            return;
+        }
+        System.err.printf("%d games in %.1fms%n", games, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * This plays every game in a script, writing the results in the same order as the games
+     *
+     * @param in - the script
+     * @param out - where the results go
+     * @throws IOException if the script could not be read or the results could not be written
+     */
+    private void run(BufferedReader in, Writer out) throws IOException {
+        ArrayDeque<CompletableFuture<String>> pending = new ArrayDeque<>();
+        long lineNumber = 0;
+        boolean reading = true;
+        while (reading) {
+            String[] chunk = new String[CHUNK_LINES];
+            int count = 0;
+            String line;
+            while (count < CHUNK_LINES && (line = in.readLine()) != null) chunk[count++] = line;
+            reading = count == CHUNK_LINES;
+            if (count == 0) break;
+
+            long firstLine = lineNumber + 1;
+            int chunkLength = count;
+            pending.add(CompletableFuture.supplyAsync(() -> playChunk(chunk, chunkLength, firstLine)));
+            lineNumber += count;
+
+            if (pending.size() >= CHUNKS_IN_FLIGHT) out.write(pending.removeFirst().join());
+        }
+        while (!pending.isEmpty()) out.write(pending.removeFirst().join());
+    }
+
+    /**
+     * This plays the games in a chunk of the script, one after another
+     *
+     * @param lines - the lines of the chunk
+     * @param count - how many of the lines are used
+     * @param firstLine - the line number of the first line in the script
+     * @return - the results of every game in the chunk, one per line
+     */
+    private String playChunk(String[] lines, int count, long firstLine) {
+        StringBuilder json = new StringBuilder(count * 160);
+        List<String> words = new ArrayList<>();
+        int played = 0;
+        for (int i = 0; i < count; i++) {
+            split(lines[i], words);
+            if (words.isEmpty() || words.get(0).startsWith("#")) continue;
+            playGame(words, firstLine + i, json);
+            played++;
+        }
+        synchronized (this) {
+            games += played;
+        }
+        return json.toString();
+    }
+
+    /**
+     * This plays one game and adds its result as a line of JSON
+     *
+     * @param words - the answer and then the guesses
+     * @param lineNumber - the line the game is on in the script
+     * @param json - where the result goes
+     */
+    private void playGame(List<String> words, long lineNumber, StringBuilder json) {
+        json.append("{\"line\":").append(lineNumber);
+        String answer = words.get(0).toUpperCase();
+        int letters = answer.length();
+
+        WordleController controller;
+        try {
+            DictionaryRegistry.get(letters); // this is shared, so only the first game of each length loads it
+            controller = new WordleController(letters, maxGuesses, DictionaryRegistry.filename(letters), answer, null);
+        } catch (IOException e) {
+            appendError(json, "There is no dictionary for " + letters + " letter words");
+            return;
+        } catch (IllegalArgumentException e) {
+            appendError(json, e.getMessage());
+            return;
+        }
+        controller.setHardMode(hardMode);
+
+        int[] remaining = new int[maxGuesses];
+        StringBuilder rejected = new StringBuilder();
+        for (int i = 1; i < words.size() && !controller.isGameOver(); i++) {
+            try {
+                controller.makeGuess(words.get(i));
+                remaining[controller.getGuessCount() - 1] = controller.getRemainingCount();
+            } catch (IncorrectGuessException e) {
+                rejected.append(rejected.length() == 0 ? "{\"guess\":" : ",{\"guess\":");
+                appendString(rejected, words.get(i));
+                rejected.append(",\"reason\":");
+                appendString(rejected, e.getMessage().trim());
+                rejected.append('}');
+            }
+        }
+
+        Guess[] progress = controller.getProgress();
+        int guessCount = controller.getGuessCount();
+        String status = !controller.isGameOver() ? "unfinished"
+                : progress[guessCount - 1].getIsCorrect() ? "won" : "lost";
+
+        json.append(",\"answer\":\"").append(answer).append("\",\"status\":\"").append(status).append("\",\"guesses\":[");
+        for (int i = 0; i < guessCount; i++) {
+            if (i > 0) json.append(',');
+            json.append('"').append(progress[i].getGuess()).append('"'); // only letters get this far
+        }
+        json.append("],\"results\":[");
+        for (int i = 0; i < guessCount; i++) {
+            if (i > 0) json.append(',');
+            json.append('"');
+            for (INDEX_RESULT result : progress[i].getIndices()) json.append(RESULT_CHARACTERS[result.ordinal()]);
+            json.append('"');
+        }
+        json.append("],\"remaining\":[");
+        for (int i = 0; i < guessCount; i++) {
+            if (i > 0) json.append(',');
+            json.append(remaining[i]);
+        }
+        json.append("],\"rejected\":[").append(rejected).append("]}\n");
+    }
+
+    /**
+     * This splits a line of the script into words, on spaces, tabs and commas
+     *
+     * @param line - the line
+     * @param words - cleared, then filled with the words
+     */
+    private static void split(String line, List<String> words) {
+        words.clear();
+        int start = -1;
+        for (int i = 0; i <= line.length(); i++) {
+            boolean separator = i == line.length() || line.charAt(i) == ',' || Character.isWhitespace(line.charAt(i));
+            if (separator && start >= 0) {
+                words.add(line.substring(start, i));
+                start = -1;
+            } else if (!separator && start < 0) {
+                start = i;
+            }
+        }
+    }
+
+    private static void appendError(StringBuilder json, String message) {
+        json.append(",\"error\":");
+        appendString(json, message);
+        json.append("}\n");
+    }
+
+    /**
+     * This adds a string to JSON in quotes, escaping anything that has to be
+     *
+     * @param json - where it goes
+     * @param text - the string
+     */
+    private static void appendString(StringBuilder json, String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') json.append('\\').append(c);
+            else if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+            else json.append(c);
+        }
+        json.append('"');
+    }
+}
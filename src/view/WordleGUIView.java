@@ -1,8 +1,13 @@
 package view;
 
 import controller.WordleController;
+import model.GameEvent;
+import model.GameEventSubscriber;
+import model.GameStatistics;
+import javafx.animation.AnimationTimer;
 import javafx.animation.TranslateTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -16,11 +21,18 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import utilities.EngineMetrics;
+import utilities.GameJournal;
 import utilities.Guess;
 import utilities.INDEX_RESULT;
 import utilities.IncorrectGuessException;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
 import static view.Wordle.*;
 
 /**
@@ -28,9 +40,20 @@ import static view.Wordle.*;
  *
  * This is the gui for wordle. it has a grid in the center and the guessed letters at the bottom in qwerty layout
  * The keyboard at the bottom and the del/enter buttons are clickable and work the same as typing.
+ * Clicking "Hint" on the right recommends a next guess, which is worked out in the background.
+ * The numbers on the left pick the word length and number of guesses, clicking one starts a new game with it.
+ * The dictionaries for the other lengths are loaded in the background after the first game starts.
+ * Each game is set up in the background too: the empty board is shown straight away, and anything typed before
+ * the game is ready is saved and played back once it is, so the window never freezes while a dictionary loads.
+ * The scene is only built once. Starting a new game clears the cells and keys that were used instead of building
+ * a new one (only the grid is rebuilt, and only when the length or number of guesses changes), and a guess only
+ * pushes the cells of its row and the keys whose color changed into the scene.
+ * Run with -Dwordle.timing=true to print how long the first frame, the game setup, and the FX thread work
+ * for every guess and new game take.
  * After winning, there is a little bouncing animation for the correct answer. If you dont win, there is no animation
  * If you dont want to start a new game or exit, and instead you want to see your game again,
  * you can exit the "new game" menu by clicking the x in the corner.
+ * The display is updated from GameEvents, which are delivered on the FX thread.
  * Error messages are not that pretty, but they are error messages so just like, dont be bad? dont guess anything invalid? lmao get better
  *
  * This class is fairly long because it is a gui.
@@ -45,7 +68,7 @@ import static view.Wordle.*;
  * 			if so, they will be taken back up to the top and the process will begin again
  * 			otherwise, it will exit the program entirely
  */
-public class WordleGUIView extends Application implements Observer {
+public class WordleGUIView extends Application {
 
 	// object variables which will update throughout gameplay
 	private static String currentWord; // this holds the current word being typed in
@@ -53,8 +76,24 @@ public class WordleGUIView extends Application implements Observer {
 	private static Group progressGroup, guessedCharactersGroup;
 	private static Label[] guessedCharactersList;
 	private static Label[][] progressLabelGrid;
+	private static Label hintLabel, topLabel;
 	private static int curRow, curCol;
 	private static Guess mostRecentGuess;
+	private static SubmissionPublisher<GameEvent> events; // shared by every game, so the view only subscribes once
+	private static long currentGameId; // events from older games are ignored, -1 while a game is loading
+	private static WordleController controller; // null while the game is still being set up
+	private static final List<String> bufferedKeys = new ArrayList<>(); // keys pressed before the game was ready
+	private static int setupCount; // so a game that finishes loading after a newer one was started is thrown away
+	private static long startNanos;
+	private static INDEX_RESULT[] shownCharacters; // what each key is colored as now, so only changed keys are redrawn
+	private static Label[] lengthLabels, guessLabels;
+	private static final List<TranslateTransition> bounces = new ArrayList<>();
+	private static Alert invalidGuessAlert; // made once and reused for every invalid guess
+	private static Stage gameOverStage;
+	private static Label gameOverLabel;
+	private static Label statisticsLabel;
+	private static final GameStatistics statistics = new GameStatistics(); // every game played in this window
+	private static int gamesStarted;
 
 	// variables for gui display (mostly dependent on size of screen)
 	// scene size
@@ -67,12 +106,19 @@ public class WordleGUIView extends Application implements Observer {
 	private static final int LETTER_SPACING = Math.min(MAIN_SCENE_WIDTH/13, MAIN_SCENE_HEIGHT/13);
 	private static final Font MAIN_FONT = new Font("Arial", LETTER_SPACING/1.6);
 	private static final Insets LABEL_SPACING = new Insets(10);
+	private static final String HINT_TEXT = "Hint";
+	private static final Font SETTINGS_FONT = new Font("Arial", LETTER_SPACING/3.0);
+	private static final double SETTINGS_SPACING = LETTER_SPACING/2.0;
+	private static final int STATISTICS_BAR = 10; // the length of the bar for the most common number of guesses
 
 	// animations
 	private static final int ANIMATION_LENGTH = 250;
 	private static final int BOUNCES = 3;
 	private static final int BOUNCE_HEIGHT = 50;
 
+	private static final boolean TIMING = Boolean.getBoolean("wordle.timing");
+	private static final String WELCOME_TEXT = "Welcome to Bennett's Wordle";
+
 	/*-------------------------- Starting a Game --------------------------*/
 	/**
 	 * This creates the gui, while startGame might create the display and can be used to make a new wordle game, this
@@ -83,30 +129,86 @@ public class WordleGUIView extends Application implements Observer {
 	 */
 	@Override
 	public void start(Stage stage) {
+		startNanos = System.nanoTime();
 		WordleGUIView.stage = stage;
+		events = new SubmissionPublisher<>();
+		events.subscribe(new GameEventSubscriber(this::update, this::updateFailed, Platform::runLater));
+
+		// the display is only created once, every game after that reuses it
+		createDisplay();
 
 		// setting up wordle things for the first game
 		startGame();
+		preloadOtherLengths();
+		if (TIMING) timeFirstFrame();
 	}
 
 	/**
 	 * This creates a game of wordle. It resets the values of all the game/display variables
-	 * It then creates a controller and creates the display for playing
+	 * It then resets the display for playing, and sets up the controller in the background
 	 */
 	private void startGame() {
-		progressGroup = new Group(); // this is the grid of letters where guesses are made
-		guessedCharactersGroup = new Group(); // this is the status of each guessed character
-		guessedCharactersList = new Label[26]; // hard coded 26 for alphabet
-		progressLabelGrid = new Label[maxGuesses][wordleLength]; // same size as the progress grid
-		curRow = 0;
-		curCol = 0;
+		long resetStart = System.nanoTime();
+		resetDisplay();
 
-		// time to make the game
-		WordleController controller = new WordleController(wordleLength, maxGuesses, filename);
-		controller.addObserver(this);
+		controller = null;
+		currentGameId = -1; // events from the old game still on their way are not drawn on the new board
+		bufferedKeys.clear();
+		mostRecentGuess = null;
 		currentWord = "";
 
-		createDisplay(controller);
+		setupController();
+		if (TIMING)
+			System.err.printf("new game %d reset in %.3fms%n", ++gamesStarted, (System.nanoTime() - resetStart) / 1e6);
+	}
+
+	/**
+	 * This creates the controller (which loads the dictionary the first time) off the FX thread.
+	 * Once it is ready, the game starts taking guesses and any keys pressed while waiting are played back
+	 */
+	private void setupController() {
+		int setup = ++setupCount;
+		int letters = wordleLength, rows = maxGuesses;
+		String file = filename;
+		boolean hard = hardMode;
+		GameJournal gameJournal = journal;
+		long setupStart = System.nanoTime();
+
+		// time to make the game
+		CompletableFuture.supplyAsync(() ->
+						new WordleController(letters, rows, file, null, events, EngineMetrics.INSTANCE))
+				.whenComplete((ready, error) -> Platform.runLater(() -> {
+					if (setup != setupCount) return; // another game was started while this one was loading
+					if (error != null) {
+						topLabel.setText("Could not load " + file);
+						return;
+					}
+
+					ready.setHardMode(hard);
+					ready.setJournal(gameJournal);
+					ready.setStatistics(statistics);
+					controller = ready;
+					currentGameId = ready.getGameId();
+					topLabel.setText(WELCOME_TEXT);
+					if (TIMING) System.err.printf("game ready in %.1fms%n", (System.nanoTime() - setupStart) / 1e6);
+
+					List<String> keys = new ArrayList<>(bufferedKeys);
+					bufferedKeys.clear();
+					for (String code : keys) handleKey(code);
+				}));
+	}
+
+	/**
+	 * This prints how long it took from starting the gui to the first frame being drawn
+	 */
+	private void timeFirstFrame() {
+		new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				System.err.printf("first frame %.1fms after start%n", (System.nanoTime() - startNanos) / 1e6);
+				stop();
+			}
+		}.start();
 	}
 
 
@@ -114,12 +216,18 @@ public class WordleGUIView extends Application implements Observer {
 	/**
 	 * This is the outer most function for making the display. It creates the scene and adds the keypress bindings
 	 * It calls helper functions for making the grid and qwerty keyboard and setting up keyboard inputs
-	 *
-	 * @param controller - this is the controller for this game of wordle
+	 * None of it needs the controller, so it can be shown while the game is still loading
+	 * This is only called once, later games reset it with resetDisplay
 	 */
-	private void createDisplay(WordleController controller) {
+	private void createDisplay() {
+		progressGroup = new Group(); // this is the grid of letters where guesses are made
+		guessedCharactersGroup = new Group(); // this is the status of each guessed character
+		guessedCharactersList = new Label[26]; // hard coded 26 for alphabet
+		shownCharacters = new INDEX_RESULT[26];
+		Arrays.fill(shownCharacters, INDEX_RESULT.UNGUESSED);
+
 		// top label
-		Label topLabel = new Label("Welcome to Bennett's Wordle");
+		topLabel = new Label("Loading...");
 		topLabel.setFont(MAIN_FONT);
 		topLabel.setTextFill(Color.WHITE);
 		topLabel.setPadding(LABEL_SPACING); // adding some offset from the top
@@ -133,12 +241,15 @@ public class WordleGUIView extends Application implements Observer {
 		BorderPane.setAlignment(topLabel, Pos.CENTER);
 		pane.setCenter(progressGroup);
 		pane.setBottom(guessedCharactersGroup);
+		pane.setRight(createHintLabel());
+		pane.setLeft(createSettings());
 
 		// offloading the bulk of displaying to another class for simplicity
-		displayProgress(controller, progressGroup, guessedCharactersGroup);
+		displayGrid();
+		displayProgress(guessedCharactersGroup);
 
 		// showing the scene
-		stage.setScene(createScene(controller, pane));
+		stage.setScene(createScene(pane));
 		stage.setTitle("Wordle");
 		stage.show();
 	}
@@ -146,48 +257,154 @@ public class WordleGUIView extends Application implements Observer {
 	/**
 	 * This creates the scene and adds the keybinds to it
 	 *
-	 * @param controller - the controller for this wordle game (needed for entering a guess)
 	 * @param pane - the border pane with the gui for the scene
 	 * @return - the scene with keybinds
 	 */
-	private Scene createScene(WordleController controller, BorderPane pane) {
+	private Scene createScene(BorderPane pane) {
 		Scene scene = new Scene(pane, MAIN_SCENE_WIDTH, MAIN_SCENE_HEIGHT);
-		scene.setOnKeyPressed((event) -> { // setting up keyboard input
-			if (mostRecentGuess != null && mostRecentGuess.getIsCorrect()) return;
-			String code = event.getCode().toString();
+		// setting up keyboard input
+		scene.setOnKeyPressed((event) -> handleKey(event.getCode().toString()));
+		return scene;
+	}
 
-			if (code.equals("ENTER")) {
+	/**
+	 * This handles a key, either typed or clicked on the qwerty keyboard.
+	 * If the game is not ready yet the key is saved, and setupController plays it back later
+	 *
+	 * @param code - the key code, like "A", "ENTER" or "BACK_SPACE"
+	 */
+	private void handleKey(String code) {
+		if (controller == null) {
+			bufferedKeys.add(code);
+			return;
+		}
+		if (controller.isGameOver()) return;
 
-				this.enterGuess(controller);
+		if (code.equals("ENTER")) {
 
-			} else if (code.equals("BACK_SPACE")) {
-				int len = currentWord.length();
-				if (len <= 0) return;
-				currentWord = currentWord.substring(0, len - 1);
-				updateCurrentWord();
+			this.enterGuess();
 
-			} else if (code.matches("[a-zA-Z]")) {
-				if (currentWord.length() >= wordleLength) return;
-				currentWord += code;
-				updateCurrentWord();
-			}
+		} else if (code.equals("BACK_SPACE")) {
+			int len = currentWord.length();
+			if (len <= 0) return;
+			currentWord = currentWord.substring(0, len - 1);
+			updateCurrentWord();
+
+		} else if (code.matches("[a-zA-Z]")) {
+			if (currentWord.length() >= wordleLength) return;
+			currentWord += code;
+			updateCurrentWord();
+		}
+	}
+
+	/**
+	 * This creates the hint button. Clicking it works out the best next guess on another thread
+	 * (it can take a few seconds for the first guess) and then shows it in place of the button text.
+	 * A hint for a game that has since been replaced is thrown away, and if working it out fails the button
+	 * text comes back
+	 *
+	 * @return - the hint label
+	 */
+	private Label createHintLabel() {
+		hintLabel = new Label(HINT_TEXT);
+		hintLabel.setFont(MAIN_FONT);
+		hintLabel.setTextFill(Color.WHITE);
+		hintLabel.setPadding(LABEL_SPACING);
+		hintLabel.setOnMouseClicked((event) -> {
+			WordleController game = controller;
+			if (game == null || game.isGameOver()) return;
+			hintLabel.setText("...");
+			CompletableFuture.supplyAsync(() -> game.getHints(1))
+					.whenComplete((hints, error) -> Platform.runLater(() -> {
+						if (game != controller) return; // a new game was started while this one was thinking
+						if (error != null || hints.isEmpty()) hintLabel.setText(HINT_TEXT);
+						else hintLabel.setText("Try\n" + hints.get(0).getWord());
+					}));
 		});
-		return scene;
+		return hintLabel;
 	}
 
 	/**
-	 * This creates the basic border pane. It uses helper functions to greate the grid and qwerty keyboard
+	 * This creates the settings on the left, a row of word lengths and a row of guess counts.
+	 * The current setting is green, clicking another one starts a new game with it
 	 *
-	 * @param controller - the controller for this wordle game. this is passed into the qwerty grid for entering guesses
-	 * @param progressGroup - grid for wordle guesses
-	 * @param guessedCharactersGroup - the grid for qwerty
+	 * @return - the group of settings labels
 	 */
-	private void displayProgress(WordleController controller, Group progressGroup, Group guessedCharactersGroup) {
+	private Group createSettings() {
+		Group settings = new Group();
+		lengthLabels = addSetting(settings, "Letters", 0, LENGTHS, () -> wordleLength, Wordle::setLength);
+		guessLabels = addSetting(settings, "Guesses", 2, GUESS_COUNTS, () -> maxGuesses, guesses -> maxGuesses = guesses);
+
+		// the statistics go under the settings
+		statisticsLabel = new Label();
+		statisticsLabel.setFont(SETTINGS_FONT);
+		statisticsLabel.setTextFill(Color.WHITE);
+		statisticsLabel.setTranslateY(5 * SETTINGS_SPACING);
+		settings.getChildren().add(statisticsLabel);
+		showStatistics();
+		BorderPane.setMargin(settings, LABEL_SPACING);
+		return settings;
+	}
+
+	/**
+	 * This adds one row of settings, a title with the options underneath it
+	 *
+	 * @param settings - the group to add the labels to
+	 * @param title - what the setting is
+	 * @param row - the row of the title, the options go on the row after
+	 * @param options - the values that can be picked
+	 * @param current - gets the value in use now
+	 * @param apply - changes the setting for the next game
+	 * @return - the labels of the options, in the same order
+	 */
+	private Label[] addSetting(Group settings, String title, int row, int[] options, IntSupplier current,
+							   IntConsumer apply) {
+		Label titleLabel = new Label(title);
+		titleLabel.setFont(SETTINGS_FONT);
+		titleLabel.setTextFill(Color.WHITE);
+		titleLabel.setTranslateY(row * SETTINGS_SPACING);
+		settings.getChildren().add(titleLabel);
+
+		Label[] optionLabels = new Label[options.length];
+		for (int i = 0; i < options.length; i++) {
+			int option = options[i];
+			Label optionLabel = new Label("" + option);
+			optionLabel.setFont(SETTINGS_FONT);
+			optionLabel.setTextFill(Color.WHITE); // the current one is colored in by highlightSettings
+			optionLabel.setTranslateX(i * SETTINGS_SPACING);
+			optionLabel.setTranslateY((row + 1) * SETTINGS_SPACING);
+			optionLabel.setOnMouseClicked((event) -> {
+				if (option == current.getAsInt()) return;
+				apply.accept(option);
+				startGame();
+			});
+			settings.getChildren().add(optionLabel);
+			optionLabels[i] = optionLabel;
+		}
+		return optionLabels;
+	}
+
+	/**
+	 * This creates the central grid for the current length and number of guesses, replacing the old one if there was one
+	 */
+	private void displayGrid() {
+		progressGroup.getChildren().clear();
+		progressLabelGrid = new Label[maxGuesses][wordleLength]; // same size as the progress grid
+		curRow = 0;
+		curCol = 0;
+
 		// add every label into the grid, this is all filled with spaces
 		for (int i = 0; i < maxGuesses; i++) {
 			displayGuess((i+1) * LETTER_SPACING, progressGroup);
 		}
+	}
 
+	/**
+	 * This creates the character status at the bottom, using a helper function to create the qwerty keyboard
+	 *
+	 * @param guessedCharactersGroup - the grid for qwerty
+	 */
+	private void displayProgress(Group guessedCharactersGroup) {
 		// adding the currently guesses/remaining characters
 		Label remainingCharacters = new Label("Character Status:");
 		remainingCharacters.setFont(MAIN_FONT);
@@ -198,7 +415,7 @@ public class WordleGUIView extends Application implements Observer {
 		guessedCharactersGroup.getChildren().add(remainingCharacters);
 
 		// adding keyboard
-		displayGuessedCharacters(guessedCharactersGroup, controller);
+		displayGuessedCharacters(guessedCharactersGroup);
 	}
 
 	/**
@@ -233,7 +450,7 @@ public class WordleGUIView extends Application implements Observer {
 		Label label = new Label(labelString);
 		label.setPrefSize(LETTER_SPACING*2, LETTER_SPACING); // styling the label
 		label.setFont(MAIN_FONT);
-		label.setTextFill(INDEX_RESULT.UNGUESSED.getJavaFXColor()); // they all start unguessed
+		label.setTextFill(ColorTheme.colorOf(INDEX_RESULT.UNGUESSED)); // they all start unguessed
 		label.setTranslateX(x);
 		label.setTranslateY(y);
 
@@ -256,9 +473,8 @@ public class WordleGUIView extends Application implements Observer {
 	 * This creates the entire qwerty keyboard at the bottom. each button is clickable and works the same as typing
 	 *
 	 * @param guessedCharactersGroup - the group which holds the labels
-	 * @param controller - the controller of the game (needed to enter to entering a guess)
 	 */
-	private void displayGuessedCharacters(Group guessedCharactersGroup, WordleController controller) {
+	private void displayGuessedCharacters(Group guessedCharactersGroup) {
 		// hard coding the qwerty keyboard
 		// 1st row
 		double x = 1.5;
@@ -288,13 +504,8 @@ public class WordleGUIView extends Application implements Observer {
 
 		// 3rd row
 		x = 1;
-		displayLetter('<', LETTER_SPACING*(x++), LETTER_SPACING*y, (event) -> {
-			if (mostRecentGuess != null && mostRecentGuess.getIsCorrect()) return;
-			int len = currentWord.length();
-			if (len <= 0) return;
-			currentWord = currentWord.substring(0, len - 1);
-			updateCurrentWord();
-		}, guessedCharactersGroup); // delete key removes last letter
+		displayLetter('<', LETTER_SPACING*(x++), LETTER_SPACING*y, (event) -> handleKey("BACK_SPACE"),
+				guessedCharactersGroup); // delete key removes last letter
 		x++;
 
 		displayLetterConverter('Z', x++, y, guessedCharactersGroup);
@@ -306,11 +517,7 @@ public class WordleGUIView extends Application implements Observer {
 		displayLetterConverter('M', x++, y, guessedCharactersGroup);
 
 		x++;
-		displayLetter('>', LETTER_SPACING*x, LETTER_SPACING*y,
-				(event) -> {
-					if (mostRecentGuess != null && mostRecentGuess.getIsCorrect()) return;
-					this.enterGuess(controller);
-				}, guessedCharactersGroup);
+		displayLetter('>', LETTER_SPACING*x, LETTER_SPACING*y, (event) -> handleKey("ENTER"), guessedCharactersGroup);
 	}
 
 	/**
@@ -327,43 +534,139 @@ public class WordleGUIView extends Application implements Observer {
 	 * @param guessedCharactersGroup - the qwerty group for displaying
 	 */
 	private void displayLetterConverter(char letter, double x, int y, Group guessedCharactersGroup) {
-		displayLetter(letter,LETTER_SPACING*x, LETTER_SPACING*y,
-				(event) -> {
-					if (mostRecentGuess != null && mostRecentGuess.getIsCorrect()) return;
-					if (currentWord.length() >= wordleLength) return;
-					currentWord += "" + letter;
-					updateCurrentWord();
-				}, guessedCharactersGroup);
+		displayLetter(letter,LETTER_SPACING*x, LETTER_SPACING*y, (event) -> handleKey("" + letter), guessedCharactersGroup);
 	}
 
 
 	/*-------------------------- Updating the Display --------------------------*/
 	/**
-	 * This function is called when the model changed. it is called from the controller which passes the update along
+	 * This clears the display for a new game. Only the rows and keys the last game used are touched,
+	 * and the grid is only rebuilt if the length or number of guesses changed
+	 */
+	private void resetDisplay() {
+		for (TranslateTransition bounce : bounces) bounce.stop();
+		bounces.clear();
+
+		if (progressLabelGrid.length != maxGuesses || progressLabelGrid[0].length != wordleLength) {
+			displayGrid();
+		} else {
+			// every row up to the one being typed in could have letters in it
+			for (int row = 0; row <= Math.min(curRow, maxGuesses - 1); row++) {
+				for (Label label : progressLabelGrid[row]) {
+					label.setText(" ");
+					label.setTextFill(ColorTheme.colorOf(INDEX_RESULT.UNGUESSED));
+					label.setTranslateY((row + 1) * LETTER_SPACING); // in case a bounce was cut off
+				}
+			}
+			curRow = 0;
+		}
+
+		for (int i = 0; i < shownCharacters.length; i++) {
+			if (shownCharacters[i] == INDEX_RESULT.UNGUESSED) continue;
+			guessedCharactersList[i].setTextFill(ColorTheme.colorOf(INDEX_RESULT.UNGUESSED));
+			shownCharacters[i] = INDEX_RESULT.UNGUESSED;
+		}
+
+		topLabel.setText("Loading...");
+		hintLabel.setText(HINT_TEXT);
+		highlightSettings();
+	}
+
+	/**
+	 * This colors the settings in use green and the rest white
+	 */
+	private void highlightSettings() {
+		for (int i = 0; i < LENGTHS.length; i++)
+			lengthLabels[i].setTextFill(LENGTHS[i] == wordleLength ? Color.GREEN : Color.WHITE);
+		for (int i = 0; i < GUESS_COUNTS.length; i++)
+			guessLabels[i].setTextFill(GUESS_COUNTS[i] == maxGuesses ? Color.GREEN : Color.WHITE);
+	}
+
+	/**
+	 * This shows the statistics of every game played so far in the panel under the settings.
+	 * The controller adds a game to them before its game over event reaches the FX thread, so they include the game
+	 * that just ended
+	 */
+	private void showStatistics() {
+		GameStatistics.Snapshot snapshot = statistics.snapshot();
+		StringBuilder text = new StringBuilder(String.format("Played %d%nWon %.0f%%%nStreak %d%nBest %d%n",
+				snapshot.getPlayed(), 100 * snapshot.getWinRate(), snapshot.getCurrentStreak(), snapshot.getMaxStreak()));
+
+		long[] histogram = snapshot.getGuessHistogram();
+		long most = 1;
+		for (long wins : histogram) most = Math.max(most, wins);
+		for (int i = 0; i < histogram.length; i++) {
+			text.append('\n').append(i + 1).append(i == histogram.length - 1 ? "+ " : "  ")
+					.append("|".repeat((int) (STATISTICS_BAR * histogram[i] / most))).append(' ').append(histogram[i]);
+		}
+		statisticsLabel.setText(text.toString());
+	}
+
+	/**
+	 * This function is called on the FX thread with every event the game publishes.
+	 * A guess fills in its row and recolors the keyboard, and the end of the game shows the animation
+	 * or asks to play again
+	 *
+	 * @param event - the event, which holds the game as it was when it happened
+	 */
+	private void update(GameEvent event) {
+		if (event.getGameId() != currentGameId) return; // left over from a game that was already replaced
+
+		switch (event.getType()) {
+			case GUESS_SCORED:
+				showGuess(event);
+				break;
+			case GAME_WON:
+				showStatistics();
+				showAnimation(event.getAnswer());
+				break;
+			case GAME_LOST:
+				showStatistics();
+				promptGameOver(event.getAnswer());
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * This is called on the FX thread if the events stop coming, so the board would stop changing without a word
+	 *
+	 * @param error - why the events stopped
+	 */
+	private void updateFailed(Throwable error) {
+		topLabel.setText("The board stopped updating: " + error.getMessage());
+	}
+
+	/**
+	 * This fills in the row of the latest guess and updates the keyboard
 	 * it holds the most recent guess to easily update variables
 	 *
-	 * @param o - the controller, used to update the display and control the wordle game
-	 * @param arg - the most recent guess, which is stored in this class when we check if they won
+	 * @param event - the event for the guess, which is stored in this class when we check if they won
 	 */
-	@Override
-	public void update(Observable o, Object arg) {
-		WordleController controller = (WordleController) o;
-		mostRecentGuess = (Guess) arg;
+	private void showGuess(GameEvent event) {
+		long drawStart = System.nanoTime();
+		mostRecentGuess = event.getGuess();
 
-		// updating the game with the latest guess
-		INDEX_RESULT[] guessedCharacters = controller.getGuessedCharacters();
+		// updating the game with the latest guess, only the keys that changed color are pushed to the scene
+		INDEX_RESULT[] guessedCharacters = event.getGuessedCharacters();
 		for (int i = 0; i < guessedCharacters.length; i++) {
-			Label label = guessedCharactersList[i];
-			label.setTextFill(guessedCharacters[i].getJavaFXColor());
+			if (guessedCharacters[i] == shownCharacters[i]) continue;
+			guessedCharactersList[i].setTextFill(ColorTheme.colorOf(guessedCharacters[i]));
+			shownCharacters[i] = guessedCharacters[i];
 		}
 
 		for (int i = 0; i < mostRecentGuess.getIndices().length; i++) {
 			Label label = progressLabelGrid[curRow][i];
-			label.setTextFill(mostRecentGuess.getIndices()[i].getJavaFXColor());
+			label.setTextFill(ColorTheme.colorOf(mostRecentGuess.getIndices()[i]));
 			label.setText(""+mostRecentGuess.getGuess().charAt(i));
 		}
 
+		hintLabel.setText(HINT_TEXT); // the old hint is out of date now
+		topLabel.setText(event.getRemainingCount() + " possible words left");
 		curRow ++;
+		if (!event.isGameOver()) updateCurrentWord(); // letters typed before the event came in go on the new row
+		if (TIMING) System.err.printf("guess drawn in %.3fms%n", (System.nanoTime() - drawStart) / 1e6);
 	}
 
 	/**
@@ -383,25 +686,19 @@ public class WordleGUIView extends Application implements Observer {
 	 * This takes the currently typed word and calls makeGuess into the controller.
 	 * It also handles any IncorrectGuessExceptions thrown by attempting an incorrect guess,
 	 * which it then uses to display a little error message to the user
-	 * @param controller - the controller into which we make guesses
 	 */
-	private void enterGuess(WordleController controller) {
+	private void enterGuess() {
 		try {
 			controller.makeGuess(currentWord);
 			currentWord = "";
 		} catch (IncorrectGuessException e) {
-			Alert a = new Alert(Alert.AlertType.INFORMATION);
-			a.setTitle("Wordle");
-			a.setContentText(e.getMessage());
-			a.setHeaderText("Invalid Guess");
-			a.showAndWait();
-		}
-
-		if (controller.isGameOver()) {
-			if (mostRecentGuess.getIsCorrect())
-				showAnimation(controller);
-			else
-				promptGameOver(controller);
+			if (invalidGuessAlert == null) {
+				invalidGuessAlert = new Alert(Alert.AlertType.INFORMATION);
+				invalidGuessAlert.setTitle("Wordle");
+				invalidGuessAlert.setHeaderText("Invalid Guess");
+			}
+			invalidGuessAlert.setContentText(e.getMessage());
+			invalidGuessAlert.showAndWait();
 		}
 	}
 
@@ -409,20 +706,20 @@ public class WordleGUIView extends Application implements Observer {
 	/*-------------------------- Ending a Game --------------------------*/
 	/**
 	 * This will show the animation upon winning the game. It calls letterJump on each letter in the correct answer
-	 * We need the controller to pass into the letterJump animation, which will prompt the user to play again
+	 * We need the answer to pass into the letterJump animation, which will prompt the user to play again
 	 *
-	 * @param controller - the controller which is needed inside promptGameOver for the final answer
+	 * @param answer - the final answer, which is needed inside promptGameOver
 	 */
-	private void showAnimation(WordleController controller) {
+	private void showAnimation(String answer) {
 		int correctGuessRow = curRow - 1;
 		Label[] lastGuessLabels = progressLabelGrid[correctGuessRow];
 
 		for (int i = 0; i < lastGuessLabels.length; i++) {
 			Label label = lastGuessLabels[i];
-			WordleController tempController = null;
+			String tempAnswer = null;
 
-			if (i == lastGuessLabels.length - 1) tempController = controller; // use this to prompt game over
-			letterJump(label, tempController);
+			if (i == lastGuessLabels.length - 1) tempAnswer = answer; // use this to prompt game over
+			letterJump(label, tempAnswer);
 		}
 	}
 
@@ -430,9 +727,9 @@ public class WordleGUIView extends Application implements Observer {
 	 * This makes a single letter jump up a few times. We play this to make the correct answer bounce on winning
 	 *
 	 * @param label - the label which will jump up and down
-	 * @param controller - the controller for displaying the correct answer in promptGameOver
+	 * @param answer - the correct answer for displaying in promptGameOver, or null for every letter but the last
 	 */
-	private void letterJump(Label label, WordleController controller) {
+	private void letterJump(Label label, String answer) {
 		TranslateTransition bounceAnimation = new TranslateTransition();
 		bounceAnimation.setDuration(Duration.millis(ANIMATION_LENGTH));
 		bounceAnimation.setNode(label);
@@ -441,24 +738,33 @@ public class WordleGUIView extends Application implements Observer {
 		bounceAnimation.setAutoReverse(true);
 
 		// we use this one time on the final label, so that we only create 1 display
-		if (controller != null)
-			bounceAnimation.setOnFinished(e -> promptGameOver(controller));
+		if (answer != null)
+			bounceAnimation.setOnFinished(e -> promptGameOver(answer));
 
+		bounces.add(bounceAnimation); // so a new game can stop it
 		bounceAnimation.play();
 	}
 
 	/**
 	 * This brings up a new gui which gives the correct answer and asks if they want to play again
 	 *
-	 * @param controller - the controller which can get us the correct answer
+	 * @param answer - the correct answer
+	 */
+	private void promptGameOver(String answer) {
+		if (gameOverStage == null) createGameOverPrompt();
+		gameOverLabel.setText("The word was " + answer + ".\n\nWould you like to play again?\n");
+		gameOverStage.show();
+	}
+
+	/**
+	 * This creates the play again window, it is made the first time a game ends and then reused
 	 */
-	private void promptGameOver(WordleController controller) {
+	private void createGameOverPrompt() {
 		Stage stage = new Stage();
 		BorderPane pane = new BorderPane();
 		pane.setStyle("-fx-background-color: black");
 
-		Label label = new Label("The word was " + controller.getAnswer() +
-				".\n\nWould you like to play again?\n");
+		Label label = new Label();
 		label.setWrapText(true);
 		label.setFont(MAIN_FONT);
 		label.setTextFill(Color.WHITE);
@@ -486,7 +792,8 @@ public class WordleGUIView extends Application implements Observer {
 		Scene scene = new Scene(pane, MINI_SCENE_WIDTH, MINI_SCENE_HEIGHT);
 		stage.setScene(scene);
 		stage.setTitle("Wordle");
-		stage.show();
+		gameOverStage = stage;
+		gameOverLabel = label;
 	}
 
 	/**
@@ -494,6 +801,7 @@ public class WordleGUIView extends Application implements Observer {
 	 * we call this when we are ending the wordle application, not a single wordle game
 	 */
 	private void endGame() {
+		events.close();
 		stage.close();
 	}
 }
@@ -1,12 +1,14 @@
 package view;
 
 import controller.WordleController;
-import utilities.Guess;
-import utilities.INDEX_RESULT;
+import model.GameEvent;
+import model.GameEventSubscriber;
+import model.GameStatistics;
+import utilities.EngineMetrics;
 import utilities.IncorrectGuessException;
-import java.util.Observable;
-import java.util.Observer;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.SubmissionPublisher;
 import static view.Wordle.*;
 
 /**
@@ -21,12 +23,27 @@ import static view.Wordle.*;
  *
  * These values are color coded to help the viewer. All the characters as well as their
  * current state is also printed for the user
+ *
+ * The board is printed when the GameEvent for a guess comes in, which happens on the publisher's thread
+ * rather than the one reading input. The drawing itself is done by TextRenderer, which redraws the board in place
+ * on a terminal, so everything printed during a game goes through it. Whether the game is over always comes from
+ * the controller, and if the events for the end of the game were dropped its final board is drawn from there too
  */
 
-public class WordleTextView implements Observer {
+public class WordleTextView {
+
+    private static final String HINT_COMMAND = "?";
+    private static final int HINTS_SHOWN = 3;
+    private static final int STATISTICS_BAR = 20; // the length of the bar for the most common number of guesses
+
+    private static final long FINAL_BOARD_WAIT_MILLIS = 200; // how long the final board has to come as an event
 
-    // so normal things dont get colored on accident
-    private static final String ANSI_RESET = "\u001B[0m";
+    // these are guarded by this view's lock, since events come in on the publisher's thread
+    private long currentGameId = -1; // the game whose events are drawn, -1 once its final board is drawn
+    private int shownGuesses; // the guesses on the board that was drawn last
+    private boolean updating = true; // false once the events stopped coming, so nothing waits for them
+    private final TextRenderer renderer = TextRenderer.forConsole();
+    private final GameStatistics statistics = new GameStatistics(); // every game played in this view
 
     /**
      * This is the constructor for the text view. The text view acts slightly like an object, which runs the game
@@ -38,72 +55,35 @@ public class WordleTextView implements Observer {
         System.out.println("RED = INCORRECT");
         System.out.println("GREEN = CORRECT");
         System.out.println("BLUE = CORRECT BUT IN A DIFFERENT PLACE");
+        System.out.println("Enter " + HINT_COMMAND + " for a hint");
+        SubmissionPublisher<GameEvent> events = new SubmissionPublisher<>();
+        events.subscribe(new GameEventSubscriber(this::update, this::updateFailed, Runnable::run));
+
         // these values here are for starting the main game loop
         boolean playing = true;
         while (playing) {
             System.out.print("\nEnter a guess: ");
 
-            WordleController controller = new WordleController(wordleLength, maxGuesses, filename);
-            controller.addObserver(this);
+            renderer.reset();
+            WordleController controller =
+                    new WordleController(wordleLength, maxGuesses, filename, null, events, EngineMetrics.INSTANCE);
+            controller.setHardMode(hardMode);
+            controller.setJournal(journal);
+            controller.setStatistics(statistics);
             Scanner scanner = new Scanner(System.in);
+            startDrawing(controller.getGameId());
 
             playGame(controller, scanner);
+            showFinalBoard(controller); // so the final board is printed before the answer
 
-            System.out.println("\n\nGood game! The word was " + controller.getAnswer() + ".");
+            System.out.println("\nGood game! The word was " + controller.getAnswer() + ".");
+            printStatistics(controller.getAnswer());
             System.out.println("Would you like to play again? yes/no");
             String answer = scanner.nextLine();
             if (!answer.equalsIgnoreCase("yes") && !answer.equalsIgnoreCase("y"))
                 playing = false;
         }
-    }
-
-    /**
-     * This takes the wordle controller (the game controller) and displays its information to the user.
-     * This is printed as a grid of previous and empty guesses as well as all characters
-     *
-     * @param controller the wordle game controller
-     */
-    private void displayProgress(WordleController controller) {
-        Guess[] prog = controller.getProgress();
-        String[] guessedCharacters = parseGuessedCharacters(controller.getGuessedCharacters());
-
-        for (Guess guess : prog) {
-            String currentGuess = guess.getGuess();
-            INDEX_RESULT[] indices = guess.getIndices();
-
-            for (int i = 0; i < guess.getGuess().length(); i++) {
-                System.out.print(indices[i].getAsciiColor() + currentGuess.charAt(i) + " " + ANSI_RESET);
-            }
-
-            System.out.println();
-        }
-
-        // formatting
-        System.out.println();
-
-        for (String character : guessedCharacters) {
-            System.out.print(character + " " + ANSI_RESET);
-        }
-
-        if (!controller.isGameOver())
-            System.out.print("\nEnter a guess: ");
-    }
-
-    /**
-     * this combines the alphabet with the guessed characters from the controller/model
-     * it adds the string of ascii color code to each letter in the alphabet and returns
-     * each character with its guessed status
-     *
-     * @param guessedCharacters - the guess status of the alphabet
-     * @return - the alphabet colored with ascii color codes
-     */
-    private String[] parseGuessedCharacters(INDEX_RESULT[] guessedCharacters) {
-        String[] alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".split("");
-        // adds color code to each letter
-        for (int i = 0; i < guessedCharacters.length; i++) {
-            alphabet[i] = guessedCharacters[i].getAsciiColor() + alphabet[i];
-        }
-        return alphabet;
+        events.close();
     }
 
     /**
@@ -122,27 +102,111 @@ public class WordleTextView implements Observer {
                 try {
 
                     guess = scanner.nextLine();
+                    renderer.inputRead();
+                    if (guess.equals(HINT_COMMAND)) {
+                        renderer.print("Try: " + controller.getHints(HINTS_SHOWN) + "\nEnter a guess: ");
+                        continue;
+                    }
                     controller.makeGuess(guess);
                     break; // we can successfully break now because valid guess
 
                 } catch (IncorrectGuessException e) {
-                    System.out.println(e.getMessage());
+                    renderer.print(e.getMessage() + "\n");
                 }
             }
         }
     }
 
     /**
-     * This is called when the model alerts the controller that there was an update, and then the controller updates the view (this method).
-     * It simply calls displayProgress which will print out the information of the entire game so far
+     * This prints the statistics of every game played so far, and how often this game's answer has been solved
+     *
+     * @param answer - the answer of the game that just ended
+     */
+    private void printStatistics(String answer) {
+        GameStatistics.Snapshot snapshot = statistics.snapshot();
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%nPlayed %d, won %.0f%%, streak %d (best %d)%n", snapshot.getPlayed(),
+                100 * snapshot.getWinRate(), snapshot.getCurrentStreak(), snapshot.getMaxStreak()));
+
+        long[] histogram = snapshot.getGuessHistogram();
+        long most = 1;
+        for (long wins : histogram) most = Math.max(most, wins);
+        for (int i = 0; i < Math.min(maxGuesses, histogram.length); i++) {
+            summary.append(i + 1).append(i == histogram.length - 1 ? "+ " : "  ");
+            summary.append("#".repeat((int) (STATISTICS_BAR * histogram[i] / most))).append(' ')
+                    .append(histogram[i]).append('\n');
+        }
+        summary.append(answer).append(" has been solved in ").append(statistics.getAnswerWins(answer))
+                .append(" of ").append(statistics.getAnswerGames(answer)).append(" games");
+        System.out.println(summary);
+    }
+
+    /**
+     * This starts drawing the events of a new game
+     *
+     * @param gameId - the id of the game
+     */
+    private synchronized void startDrawing(long gameId) {
+        currentGameId = gameId;
+        shownGuesses = 0;
+    }
+
+    /**
+     * This makes sure the final board of a game that is over has been printed. It normally comes as the game's
+     * GAME_WON or GAME_LOST event, but events are dropped rather than ever holding up the game, so the event is only
+     * waited for briefly (and not at all if the events stopped) before the board is drawn from the controller.
+     * The game is over either way, so this never decides when the main loop moves on
      *
-     * In this view, @param arg is unused. that is needed inside the gui view
+     * @param controller - the controller of the game that just ended
+     */
+    private synchronized void showFinalBoard(WordleController controller) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FINAL_BOARD_WAIT_MILLIS);
+        try {
+            for (long wait; updating && currentGameId != -1 && (wait = deadline - System.nanoTime()) > 0; )
+                TimeUnit.NANOSECONDS.timedWait(this, wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (currentGameId == -1) return; // the event drew it
+        currentGameId = -1; // so the event is ignored if it does turn up
+        if (shownGuesses < controller.getGuessCount())
+            renderer.frame(controller.getProgress(), controller.getGuessedCharacters(), controller.getRemainingCount(),
+                    true);
+    }
+
+    /**
+     * This is called with every event from the game. Guesses print out the information of the entire game so far,
+     * and the end of the game prints the final board if the guess before it was dropped
+     *
+     * @param event - the event, which holds the game as it was when it happened
+     */
+    private synchronized void update(GameEvent event) {
+        if (event.getGameId() != currentGameId) return; // its final board was already drawn without it
+        switch (event.getType()) {
+            case GUESS_SCORED:
+                renderer.frame(event);
+                shownGuesses = event.getGuessCount();
+                break;
+            case GAME_WON:
+            case GAME_LOST:
+                if (shownGuesses < event.getGuessCount()) renderer.frame(event);
+                currentGameId = -1;
+                notifyAll();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * This is called if the events stop coming. The game can still be played, and the final board is drawn
+     * from the controller, but the board is no longer printed after each guess so the player is told
      *
-     * @param o - the wordle controller which holds the needed information to be displayed
-     * @param arg - the most recent guess into the model
+     * @param error - why the events stopped
      */
-    @Override
-    public void update(Observable o, Object arg) {
-        displayProgress((WordleController) o);
+    private synchronized void updateFailed(Throwable error) {
+        updating = false;
+        renderer.print("\nThe board stopped updating: " + error + "\n");
+        notifyAll();
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Bennett Brixen
+ *
+ * This checks which file DictionaryRegistry reads a dictionary from, and that a broken compiled file never
+ * stops a game from starting.
+ */
+class DictionaryRegistryTest {
+
+    private static final List<String> WORDS = List.of("PULLS", "CRANE", "ABOUT", "SLATE", "MONEY");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsTheCompiledFile() throws IOException {
+        String text = writeDictionary();
+        DictionaryCompiler.compile(WordDictionary.load(text, 5), compiledFile(text));
+        assertLoadsEveryWord(text, MappedDictionary.class);
+    }
+
+    @Test
+    void readsTheTextFileWhenTheCompiledOneIsGarbage() throws IOException {
+        String text = writeDictionary();
+        Files.write(compiledFile(text), "garbage".getBytes(StandardCharsets.US_ASCII));
+        assertLoadsEveryWord(text, WordDictionary.class);
+    }
+
+    @Test
+    void readsTheTextFileWhenTheCompiledOneIsCorrupted() throws IOException {
+        String text = writeDictionary();
+        Path compiled = compiledFile(text);
+        DictionaryCompiler.compile(WordDictionary.load(text, 5), compiled);
+        byte[] bytes = Files.readAllBytes(compiled);
+        bytes[bytes.length - 1] ^= 1; // one bit of the last word, so the checksum no longer matches
+        Files.write(compiled, bytes);
+        assertLoadsEveryWord(text, WordDictionary.class);
+    }
+
+    private String writeDictionary() throws IOException {
+        Path text = directory.resolve("Dictionary5.txt");
+        Files.write(text, WORDS);
+        return text.toString();
+    }
+
+    private static Path compiledFile(String text) {
+        return Paths.get(DictionaryCompiler.compiledFilename(text));
+    }
+
+    private static void assertLoadsEveryWord(String text, Class<? extends WordList> loaded) throws IOException {
+        WordList words = DictionaryRegistry.get(text, 5).getWords();
+        assertEquals(loaded, words.getClass());
+        assertEquals(WORDS.size(), words.size());
+        for (String word : WORDS) assertTrue(words.contains(WordDictionary.encode(word, 5)), word);
+    }
+}
@@ -0,0 +1,212 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Bennett Brixen
+ *
+ * This checks that a journal reads back every complete game once, in order, after the ways a run can end badly:
+ * crashing partway through a record, crashing partway through a compaction, and compacting during a scan.
+ *
+ * Every game here is 5 letters with 3 guesses, so every record is the same size and the tests can find them.
+ */
+class GameJournalTest {
+
+    private static final int SEGMENT_SIZE =
+            GameJournal.SEGMENT_HEADER + GameJournal.recordSize(WordDictionary.MAX_LENGTH, GameJournal.MAX_GUESSES);
+    private static final int RECORD = GameJournal.recordSize(5, 3);
+    private static final long[] GUESSES = {
+            WordDictionary.encode("CRANE", 5), WordDictionary.encode("SLOTH", 5), WordDictionary.encode("ABOUT", 5)};
+    private static final int[] PATTERNS = {1, 2, PatternScorer.winningPattern(5)};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackEveryGameAcrossSegments() throws IOException {
+        int games = 3 * ((SEGMENT_SIZE - GameJournal.SEGMENT_HEADER) / RECORD) + 5;
+        try (GameJournal journal = GameJournal.open(directory, SEGMENT_SIZE)) {
+            addGames(journal, 0, games);
+        }
+        assertEquals(range(0, games), gameIds());
+
+        List<Integer> lastPatterns = new ArrayList<>();
+        GameJournalReader.scan(directory, (gameId, startMillis, endMillis, letters, answer, won, guessCount,
+                                           guesses, patterns) -> {
+            assertEquals(5, letters);
+            assertEquals(GUESSES[2], answer);
+            assertTrue(won);
+            assertEquals(3, guessCount);
+            assertEquals(GUESSES[0], guesses[0]);
+            assertEquals(500, endMillis - startMillis);
+            lastPatterns.add(patterns[2]);
+        });
+        assertTrue(lastPatterns.stream().allMatch(pattern -> pattern == PATTERNS[2]));
+    }
+
+    @Test
+    void stopsBeforeACorruptTailRecord() throws IOException {
+        Path segment = crashAfterGames(10);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // one byte of the last game's answer, which its checksum no longer matches
+            channel.write(ByteBuffer.wrap(new byte[] {0x7F}), lastRecord() + GameJournal.RECORD_HEADER + 23);
+        }
+        assertEquals(range(0, 9), gameIds());
+        assertReopensAfter(range(0, 9));
+    }
+
+    @Test
+    void stopsBeforeATruncatedTailRecord() throws IOException {
+        Path segment = crashAfterGames(10);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(lastRecord() + RECORD / 2);
+        }
+        assertEquals(range(0, 9), gameIds());
+        assertReopensAfter(range(0, 9));
+    }
+
+    @Test
+    void repairsASegmentWhoseHeaderNeverReachedTheDisk() throws IOException {
+        Path segment = crashAfterGames(10);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(GameJournal.SEGMENT_HEADER), 0);
+        }
+        assertEquals(range(0, 0), gameIds()); // skipped rather than failing the whole scan
+        assertReopensAfter(range(0, 10));
+    }
+
+    @Test
+    void refusesToOpenADirectoryThatIsAlreadyOpen() throws IOException {
+        try (GameJournal journal = GameJournal.open(directory, SEGMENT_SIZE, false)) {
+            addGames(journal, 0, 3);
+            assertThrows(IOException.class, () -> GameJournal.open(directory, SEGMENT_SIZE, false));
+            addGames(journal, 3, 6);
+        }
+        assertReopensAfter(range(0, 6));
+    }
+
+    @Test
+    void skipsWhatAnInterruptedCompactionLeftBehind() throws IOException {
+        GameJournal journal = openAfterRuns(3, 3);
+        Map<Path, byte[]> before = new HashMap<>();
+        for (Path file : journalFiles()) before.put(file, Files.readAllBytes(file));
+
+        // as if it stopped after moving the compacted segment into place but before deleting the old ones
+        journal.compact();
+        assertEquals(2, journalFiles().size());
+        for (Map.Entry<Path, byte[]> file : before.entrySet())
+            if (!Files.exists(file.getKey())) Files.write(file.getKey(), file.getValue());
+        // and as if another compaction stopped partway through writing its temporary file
+        Files.write(directory.resolve(journalFiles().get(0).getFileName() + ".tmp"), new byte[] {1, 2, 3});
+
+        assertEquals(range(0, 9), gameIds());
+        addGames(journal, 9, 12);
+        journal.close();
+
+        GameJournal.open(directory, SEGMENT_SIZE, false).close();
+        try (var files = Files.list(directory)) {
+            // the compacted segment, the fourth run's, the one just started and the lock file
+            assertEquals(4, files.count());
+        }
+        assertEquals(range(0, 12), gameIds());
+    }
+
+    @Test
+    void scanReadsEveryGameOnceWhileCompacting() throws IOException {
+        try (GameJournal journal = openAfterRuns(3, 3)) {
+            List<Long> ids = new ArrayList<>();
+            long games = GameJournalReader.scan(directory, (gameId, startMillis, endMillis, letters, answer, won,
+                                                            guessCount, guesses, patterns) -> {
+                // the first segment is already being read, and the two after it are deleted under the scan
+                if (ids.isEmpty()) journal.compact();
+                ids.add(gameId);
+            });
+            assertEquals(range(0, 9), ids);
+            assertEquals(9, games);
+        }
+    }
+
+    /**
+     * This adds games with ids from (inclusive) to to (exclusive), each one ending 500ms after it started
+     */
+    private static void addGames(GameJournal journal, int from, int to) {
+        for (int id = from; id < to; id++)
+            journal.append(id, 1000L * id, 1000L * id + 500, 5, GUESSES[2], true, 3, GUESSES, PATTERNS);
+    }
+
+    /**
+     * This writes games in a journal that is abandoned instead of closed, like a program that crashed
+     *
+     * @return the segment they are in
+     */
+    private Path crashAfterGames(int games) throws IOException {
+        GameJournal crashed = GameJournal.open(directory, SEGMENT_SIZE, false);
+        addGames(crashed, 0, games);
+        crashed.abandon();
+        List<Path> files = journalFiles();
+        assertEquals(1, files.size());
+        return files.get(0);
+    }
+
+    private static long lastRecord() {
+        return GameJournal.SEGMENT_HEADER + 9L * RECORD;
+    }
+
+    /**
+     * This checks a journal opened after a crash seals it where the good games end and carries on after them
+     */
+    private void assertReopensAfter(List<Long> kept) throws IOException {
+        try (GameJournal journal = GameJournal.open(directory, SEGMENT_SIZE, false)) {
+            addGames(journal, 100, 103);
+        }
+        List<Long> expected = new ArrayList<>(kept);
+        expected.addAll(range(100, 103));
+        assertEquals(expected, gameIds());
+    }
+
+    /**
+     * This runs the journal a few times, each run sealing the last one's small segment when it opens
+     *
+     * @return the journal opened after the runs, which has not been compacted
+     */
+    private GameJournal openAfterRuns(int runs, int gamesPerRun) throws IOException {
+        for (int run = 0; run < runs; run++) {
+            try (GameJournal journal = GameJournal.open(directory, SEGMENT_SIZE, false)) {
+                addGames(journal, run * gamesPerRun, (run + 1) * gamesPerRun);
+            }
+        }
+        return GameJournal.open(directory, SEGMENT_SIZE, false);
+    }
+
+    private List<Path> journalFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(GameJournal.EXTENSION))
+                    .sorted().collect(Collectors.toList());
+        }
+    }
+
+    private List<Long> gameIds() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        GameJournalReader.scan(directory, (gameId, startMillis, endMillis, letters, answer, won, guessCount,
+                                           guesses, patterns) -> ids.add(gameId));
+        return ids;
+    }
+
+    private static List<Long> range(long from, long to) {
+        return LongStream.range(from, to).boxed().collect(Collectors.toList());
+    }
+}
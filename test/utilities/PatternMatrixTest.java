@@ -0,0 +1,78 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Bennett Brixen
+ *
+ * This checks that a built pattern matrix is used by DictionaryRegistry whichever way the dictionary is loaded,
+ * and whichever of DictionaryCompiler and PatternMatrixBuilder ran first.
+ *
+ * The words are deliberately out of order in the text file, like the real dictionaries.
+ */
+class PatternMatrixTest {
+
+    private static final List<String> WORDS = List.of("PULLS", "CRANE", "ABOUT", "SLATE", "MONEY", "WORLD", "ALOFT");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compiledBeforeBuilding() throws IOException {
+        String text = writeDictionary();
+        compile(text);
+        build(text);
+        assertMatrixMatches(text, MappedDictionary.class);
+    }
+
+    @Test
+    void compiledAfterBuilding() throws IOException {
+        String text = writeDictionary();
+        build(text);
+        compile(text);
+        assertMatrixMatches(text, MappedDictionary.class);
+    }
+
+    @Test
+    void builtWithoutCompiling() throws IOException {
+        String text = writeDictionary();
+        build(text);
+        assertMatrixMatches(text, WordDictionary.class);
+    }
+
+    private String writeDictionary() throws IOException {
+        Path text = directory.resolve("Dictionary5.txt");
+        Files.write(text, WORDS);
+        return text.toString();
+    }
+
+    private static void compile(String text) throws IOException {
+        DictionaryCompiler.compile(WordDictionary.load(text, 5), Paths.get(DictionaryCompiler.compiledFilename(text)));
+    }
+
+    private static void build(String text) throws IOException {
+        PatternMatrixBuilder.build(WordDictionary.load(text, 5), Paths.get(PatternMatrix.filename(text)));
+    }
+
+    /**
+     * This loads the dictionary the way a game does and checks its matrix agrees with scoring every pattern
+     */
+    private static void assertMatrixMatches(String text, Class<? extends WordList> loaded) throws IOException {
+        DictionaryRegistry.Entry entry = DictionaryRegistry.get(text, 5);
+        WordList words = entry.getWords();
+        assertEquals(loaded, words.getClass());
+
+        PatternMatrix matrix = entry.getPatternMatrix();
+        assertNotNull(matrix);
+        for (int guess = 0; guess < words.size(); guess++)
+            for (int answer = 0; answer < words.size(); answer++)
+                assertEquals(PatternScorer.score(words.get(guess), words.get(answer), 5), matrix.pattern(guess, answer));
+    }
+}